@@ -0,0 +1,176 @@
+package com.bobocode.dao;
+
+import com.bobocode.exception.DaoOperationException;
+import com.bobocode.model.Product;
+import com.bobocode.util.MultiLoadResult;
+import com.bobocode.util.Page;
+import com.bobocode.util.PooledDataSource;
+import com.bobocode.util.UpsertResult;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link AsyncProductDao} runs {@link ProductDao} operations on an executor and returns {@link CompletableFuture}s,
+ * so request handlers do not block their own threads on JDBC I/O. On a JDK with virtual threads every operation
+ * gets its own virtual thread; otherwise a fixed pool of maxConcurrency platform threads is used.
+ * <p>
+ * At most maxConcurrency operations reach the delegate at the same time. The others wait on a fair semaphore, which
+ * is cheap for virtual threads, instead of piling up in the connection pool queue. Size it to the connection pool,
+ * e.g. with {@link AsyncProductDao#forPool(ProductDao, PooledDataSource)}.
+ * <p>
+ * {@link ProductDao#streamAll()} is not exposed, because the stream holds a connection while it is consumed by
+ * the caller.
+ */
+public class AsyncProductDao implements AutoCloseable {
+    private final ProductDao productDao;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+
+    /**
+     * @param productDao     blocking DAO that performs the operations
+     * @param maxConcurrency maximum number of operations running at the same time
+     */
+    public AsyncProductDao(ProductDao productDao, int maxConcurrency) {
+        this(productDao, maxConcurrency, newExecutor(maxConcurrency));
+    }
+
+    /**
+     * @param productDao     blocking DAO that performs the operations
+     * @param maxConcurrency maximum number of operations running at the same time
+     * @param executor       executor of the operations, it is shut down by {@link AsyncProductDao#close()}
+     */
+    public AsyncProductDao(ProductDao productDao, int maxConcurrency, ExecutorService executor) {
+        if(maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be positive");
+        }
+        this.productDao = productDao;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.executor = executor;
+    }
+
+    /**
+     * Creates an {@link AsyncProductDao} whose concurrency equals the maximum size of the connection pool
+     */
+    public static AsyncProductDao forPool(ProductDao productDao, PooledDataSource pooledDataSource) {
+        return new AsyncProductDao(productDao, pooledDataSource.getConfig().getMaxPoolSize());
+    }
+
+    /**
+     * Returns a virtual-thread-per-task executor when the JDK provides it, or a fixed pool of platform threads.
+     * The method is looked up reflectively, so the class compiles and runs on JDKs without virtual threads.
+     */
+    static ExecutorService newExecutor(int maxConcurrency) {
+        try {
+            return (ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                    .invoke();
+        } catch(NoSuchMethodException | IllegalAccessException e) {
+            return Executors.newFixedThreadPool(maxConcurrency);
+        } catch(Throwable e) {
+            throw new IllegalStateException("Cannot create virtual thread executor", e);
+        }
+    }
+
+    public CompletableFuture<Void> save(Product product) {
+        return run(() -> productDao.save(product));
+    }
+
+    public CompletableFuture<Void> saveAll(Collection<Product> products) {
+        return run(() -> productDao.saveAll(products));
+    }
+
+    public CompletableFuture<UpsertResult> upsertAll(Collection<Product> products) {
+        return supply(() -> productDao.upsertAll(products));
+    }
+
+    public CompletableFuture<List<Product>> findAll() {
+        return supply(productDao::findAll);
+    }
+
+    public <R extends Record> CompletableFuture<List<R>> findAll(Class<R> projection) {
+        return supply(() -> productDao.findAll(projection));
+    }
+
+    public CompletableFuture<Page<Product>> findPage(Long cursor, int size) {
+        return supply(() -> productDao.findPage(cursor, size));
+    }
+
+    public CompletableFuture<Product> findOne(Long id) {
+        return supply(() -> productDao.findOne(id));
+    }
+
+    public CompletableFuture<MultiLoadResult<Product>> findAllById(Collection<Long> ids) {
+        return supply(() -> productDao.findAllById(ids));
+    }
+
+    public CompletableFuture<Void> update(Product product) {
+        return run(() -> productDao.update(product));
+    }
+
+    public CompletableFuture<Void> updateAll(Collection<Product> products) {
+        return run(() -> productDao.updateAll(products));
+    }
+
+    public CompletableFuture<Void> remove(Product product) {
+        return run(() -> productDao.remove(product));
+    }
+
+    public CompletableFuture<Void> removeAll(Collection<Long> ids) {
+        return run(() -> productDao.removeAll(ids));
+    }
+
+    /**
+     * @return number of operations waiting for a permit to reach the database
+     */
+    public int getWaitingOperations() {
+        return permits.getQueueLength();
+    }
+
+    private CompletableFuture<Void> run(Runnable operation) {
+        return supply(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DaoOperationException("Interrupted while waiting for a database permit", e);
+            }
+            try {
+                return operation.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Stops accepting new operations and waits for the submitted ones to complete
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while(!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting, operations are bounded by the JDBC timeouts
+            }
+        } catch(InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
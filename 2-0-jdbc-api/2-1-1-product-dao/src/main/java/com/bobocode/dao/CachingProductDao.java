@@ -0,0 +1,341 @@
+package com.bobocode.dao;
+
+import com.bobocode.exception.DaoOperationException;
+import com.bobocode.model.Product;
+import com.bobocode.util.MultiLoadResult;
+import com.bobocode.util.Page;
+import com.bobocode.util.UpsertResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * {@link CachingProductDao} is a read-through cache of {@link ProductDao#findOne(Long)} results. The cache is
+ * bounded by size (the least recently used product is evicted) and by time to live. Products are cached on
+ * {@code findOne} and invalidated on every write of the same id, so the cache never returns a product older than
+ * the last write made through this DAO.
+ * <p>
+ * Concurrent misses on the same id are loaded once: the first caller queries the database and the others wait for
+ * its result. A load that overlaps with a write of the same id is returned to the callers but not cached.
+ * <p>
+ * Products are mutable, so the cache stores and returns copies. Saved products are not cached: the saved object
+ * lacks the columns filled in by the database (the creation time) and keeps the price unscaled, so the first
+ * {@code findOne} reads the stored row. Writes made in a transaction that is rolled back later, or made by other
+ * processes, are not visible to the cache until the entry expires.
+ */
+public class CachingProductDao implements ProductDao {
+    private final ProductDao productDao;
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoTicker;
+    private final Map<Long, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentMap<Long, CompletableFuture<Product>> loads = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param productDao  DAO that loads and writes products
+     * @param maximumSize maximum number of cached products
+     * @param timeToLive  time after which a cached product is loaded again
+     */
+    public CachingProductDao(ProductDao productDao, int maximumSize, Duration timeToLive) {
+        this(productDao, maximumSize, timeToLive, System::nanoTime);
+    }
+
+    CachingProductDao(ProductDao productDao, int maximumSize, Duration timeToLive, LongSupplier nanoTicker) {
+        if(maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        if(timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        this.productDao = productDao;
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.nanoTicker = nanoTicker;
+    }
+
+    @Override
+    public Product findOne(final Long id) {
+        final Product cachedProduct = getCached(id);
+        if(cachedProduct != null) {
+            hits.increment();
+            return copy(cachedProduct);
+        }
+        misses.increment();
+        final CompletableFuture<Product> load = new CompletableFuture<>();
+        final CompletableFuture<Product> runningLoad = loads.putIfAbsent(id, load);
+        if(runningLoad != null) {
+            return copy(await(runningLoad));
+        }
+        final long startNanos = nanoTicker.getAsLong();
+        try {
+            final Product product = productDao.findOne(id);
+            totalLoadNanos.add(nanoTicker.getAsLong() - startNanos);
+            loadCount.increment();
+            putLoaded(load, product);
+            load.complete(product);
+            return copy(product);
+        } catch(RuntimeException e) {
+            loadFailures.increment();
+            loads.remove(id, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Product await(final CompletableFuture<Product> load) {
+        try {
+            return load.join();
+        } catch(CompletionException e) {
+            if(e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private synchronized Product getCached(final Long id) {
+        final CacheEntry entry = entries.get(id);
+        if(entry == null) {
+            return null;
+        }
+        if(nanoTicker.getAsLong() - entry.expiresAtNanos() >= 0) {
+            entries.remove(id);
+            expirations.increment();
+            return null;
+        }
+        return entry.product();
+    }
+
+    private synchronized void put(final Product product) {
+        entries.put(product.getId(), new CacheEntry(copy(product), nanoTicker.getAsLong() + timeToLiveNanos));
+        final Iterator<CacheEntry> leastRecentlyUsed = entries.values().iterator();
+        while(entries.size() > maximumSize) {
+            leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Caches a loaded product unless its load was cancelled by a write of the same id while it was running
+     */
+    private synchronized void putLoaded(final CompletableFuture<Product> load, final Product product) {
+        if(loads.remove(product.getId(), load)) {
+            put(product);
+        }
+    }
+
+    private synchronized void invalidate(final Long id) {
+        if(id == null) {
+            return;
+        }
+        loads.remove(id);
+        entries.remove(id);
+    }
+
+    /**
+     * Removes all cached products
+     */
+    public synchronized void invalidateAll() {
+        loads.clear();
+        entries.clear();
+    }
+
+    public CacheStats getStats() {
+        final int size;
+        synchronized(this) {
+            size = entries.size();
+        }
+        return new CacheStats(size, hits.sum(), misses.sum(), loadCount.sum(), loadFailures.sum(),
+                totalLoadNanos.sum(), evictions.sum(), expirations.sum());
+    }
+
+    @Override
+    public void save(final Product product) {
+        productDao.save(product);
+        invalidate(product.getId());
+    }
+
+    @Override
+    public void saveAll(final Collection<Product> products) {
+        productDao.saveAll(products);
+        products.forEach(product -> invalidate(product.getId()));
+    }
+
+    @Override
+    public UpsertResult upsertAll(final Collection<Product> products) {
+        try {
+            return productDao.upsertAll(products);
+        } finally {
+            products.stream().filter(product -> product.getId() != null).forEach(product -> invalidate(product.getId()));
+        }
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return productDao.findAll();
+    }
+
+    @Override
+    public <R extends Record> List<R> findAll(final Class<R> projection) {
+        return productDao.findAll(projection);
+    }
+
+    @Override
+    public Stream<Product> streamAll() {
+        return productDao.streamAll();
+    }
+
+    @Override
+    public Page<Product> findPage(final Long cursor, final int size) {
+        return productDao.findPage(cursor, size);
+    }
+
+    /**
+     * Cached products are taken from the cache, the others are loaded with one call of the delegate. Like
+     * {@code findOne}, the multi-load registers a load of every id it fetches, so {@code findOne} misses of these ids
+     * wait for it, and a product is cached only if no write of its id happened while the load was running.
+     */
+    @Override
+    public MultiLoadResult<Product> findAllById(final Collection<Long> ids) {
+        final List<Product> cachedProducts = new ArrayList<>();
+        final List<Long> idsToLoad = new ArrayList<>();
+        for(Long id : new LinkedHashSet<>(ids)) {
+            final Product cachedProduct = id == null ? null : getCached(id);
+            if(cachedProduct != null) {
+                hits.increment();
+                cachedProducts.add(copy(cachedProduct));
+            } else {
+                misses.increment();
+                idsToLoad.add(id);
+            }
+        }
+        if(!idsToLoad.isEmpty()) {
+            final Map<Long, CompletableFuture<Product>> ownLoads = new HashMap<>();
+            for(Long id : idsToLoad) {
+                final CompletableFuture<Product> load = new CompletableFuture<>();
+                if(id != null && loads.putIfAbsent(id, load) == null) {
+                    ownLoads.put(id, load);
+                }
+            }
+            final long startNanos = nanoTicker.getAsLong();
+            final MultiLoadResult<Product> loaded;
+            try {
+                loaded = productDao.findAllById(idsToLoad);
+            } catch(RuntimeException e) {
+                loadFailures.increment();
+                ownLoads.forEach((id, load) -> {
+                    loads.remove(id, load);
+                    load.completeExceptionally(e);
+                });
+                throw e;
+            }
+            totalLoadNanos.add(nanoTicker.getAsLong() - startNanos);
+            loadCount.increment();
+            for(Product product : loaded.found()) {
+                final CompletableFuture<Product> load = ownLoads.remove(product.getId());
+                if(load != null) {
+                    putLoaded(load, product);
+                    load.complete(product);
+                }
+                cachedProducts.add(copy(product));
+            }
+            ownLoads.forEach((id, load) -> {
+                loads.remove(id, load);
+                load.completeExceptionally(new DaoOperationException(String.format("Cannot find product with ID=%s", id)));
+            });
+        }
+        return MultiLoadResult.of(ids, cachedProducts, Product::getId);
+    }
+
+    @Override
+    public void update(final Product product) {
+        try {
+            productDao.update(product);
+        } finally {
+            invalidate(product.getId());
+        }
+    }
+
+    @Override
+    public void updateAll(final Collection<Product> products) {
+        try {
+            productDao.updateAll(products);
+        } finally {
+            products.forEach(product -> invalidate(product.getId()));
+        }
+    }
+
+    @Override
+    public void remove(final Product product) {
+        try {
+            productDao.remove(product);
+        } finally {
+            invalidate(product.getId());
+        }
+    }
+
+    @Override
+    public void removeAll(final Collection<Long> ids) {
+        try {
+            productDao.removeAll(ids);
+        } finally {
+            ids.forEach(this::invalidate);
+        }
+    }
+
+    private static Product copy(final Product product) {
+        return new Product(product.getId(), product.getName(), product.getProducer(), product.getPrice(),
+                product.getExpirationDate(), product.getCreationTime());
+    }
+
+    private record CacheEntry(Product product, long expiresAtNanos) {
+    }
+
+    /**
+     * Point-in-time statistics of a {@link CachingProductDao}
+     *
+     * @param size           number of cached products
+     * @param hits           number of {@code findOne} calls served from the cache
+     * @param misses         number of {@code findOne} calls that loaded the product or waited for a running load
+     * @param loads          number of successful loads from the database
+     * @param loadFailures   number of loads that threw an exception
+     * @param totalLoadNanos total time spent in successful loads
+     * @param evictions      number of products evicted because the cache was full
+     * @param expirations    number of products removed because their time to live elapsed
+     */
+    public record CacheStats(int size, long hits, long misses, long loads, long loadFailures, long totalLoadNanos,
+                             long evictions, long expirations) {
+
+        public double hitRatio() {
+            final long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        public long averageLoadNanos() {
+            return loads == 0 ? 0 : totalLoadNanos / loads;
+        }
+    }
+}
@@ -2,8 +2,13 @@ package com.bobocode.dao;
 
 import com.bobocode.exception.DaoOperationException;
 import com.bobocode.model.Product;
+import com.bobocode.util.MultiLoadResult;
+import com.bobocode.util.Page;
+import com.bobocode.util.UpsertResult;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * {@link ProductDao} is a Data Access Object pattern (DAO) that encapsulates all database access and manipulation logic.
@@ -18,6 +23,29 @@ public interface ProductDao {
      */
     void save(Product product);
 
+    /**
+     * Stores new products into the database within a single transaction using JDBC batches. Sets database-generated
+     * IDs to {@link Product} instances in the iteration order of the collection. If any insert fails, the whole
+     * transaction is rolled back and none of the products gets an ID.
+     *
+     * @param products new products
+     * @throws DaoOperationException in case of database errors
+     */
+    void saveAll(Collection<Product> products);
+
+    /**
+     * Inserts or updates products within a single transaction using JDBC batches. A product with an ID is written
+     * with a dialect-specific upsert ({@code INSERT ... ON CONFLICT} on PostgreSQL, {@code MERGE INTO} on H2), so it
+     * replaces the stored row with the same ID or is inserted with that ID; if the ID occurs more than once, the last
+     * product wins. A product without an ID is inserted and gets the database-generated ID. If any statement fails,
+     * the whole transaction is rolled back.
+     *
+     * @param products products to store
+     * @return number of inserted and updated rows
+     * @throws DaoOperationException in case of database errors
+     */
+    UpsertResult upsertAll(Collection<Product> products);
+
     /**
      * Retrieves and returns all products from the database
      *
@@ -26,6 +54,40 @@ public interface ProductDao {
      */
     List<Product> findAll();
 
+    /**
+     * Retrieves all products as records that hold only the needed columns. The query selects only the columns
+     * named after the record components (camelCase component to snake_case column, e.g. {@code expirationDate}
+     * to {@code expiration_date}), so unneeded columns are neither transferred nor mapped.
+     *
+     * @param projection public record class whose components are columns of the products table
+     * @param <R>        projection type
+     * @return list of projections of all products
+     * @throws IllegalArgumentException if a record component does not match a column
+     * @throws DaoOperationException    in case of database errors
+     */
+    <R extends Record> List<R> findAll(Class<R> projection);
+
+    /**
+     * Returns a lazy stream of all products. Rows are fetched from the database in chunks while the stream is
+     * consumed, so the whole table is never held in memory. The stream holds an open connection and must be closed,
+     * preferably using try-with-resources.
+     *
+     * @return stream of all products
+     * @throws DaoOperationException in case of database errors, also while the stream is consumed
+     */
+    Stream<Product> streamAll();
+
+    /**
+     * Returns a page of products ordered by id using keyset pagination: the query seeks the primary key index
+     * right after the cursor instead of skipping rows with OFFSET.
+     *
+     * @param cursor {@link Page#nextCursor()} of the previous page, or {@code null} to get the first page
+     * @param size   maximum number of products on the page
+     * @return page of products with a cursor of the next page
+     * @throws DaoOperationException in case of database errors
+     */
+    Page<Product> findPage(Long cursor, int size);
+
     /**
      * Returns a product object by provided id
      *
@@ -35,6 +97,15 @@ public interface ProductDao {
      */
     Product findOne(Long id);
 
+    /**
+     * Returns products by a set of ids using a few queries instead of one query per id
+     *
+     * @param ids product identifiers, duplicates are ignored
+     * @return found products in the order of the ids, and the ids that do not exist
+     * @throws DaoOperationException in case of database errors
+     */
+    MultiLoadResult<Product> findAllById(Collection<Long> ids);
+
     /**
      * Updates existing product.
      *
@@ -43,6 +114,15 @@ public interface ProductDao {
      */
     void update(Product product);
 
+    /**
+     * Updates existing products within a single transaction using JDBC batches. If any of the products is not
+     * stored, the whole transaction is rolled back.
+     *
+     * @param products stored products with updated fields
+     * @throws DaoOperationException in case of database errors or if any of the products does not exist
+     */
+    void updateAll(Collection<Product> products);
+
     /**
      * Removes an existing product from the database
      *
@@ -50,4 +130,13 @@ public interface ProductDao {
      * @throws DaoOperationException in case of database errors
      */
     void remove(Product product);
+
+    /**
+     * Removes existing products by their IDs within a single transaction. If any of the IDs is not stored, nothing
+     * is removed.
+     *
+     * @param ids IDs of stored products
+     * @throws DaoOperationException in case of database errors or if any of the products does not exist
+     */
+    void removeAll(Collection<Long> ids);
 }
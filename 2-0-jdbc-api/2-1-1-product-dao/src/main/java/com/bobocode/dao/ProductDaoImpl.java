@@ -2,23 +2,75 @@ package com.bobocode.dao;
 
 import com.bobocode.exception.DaoOperationException;
 import com.bobocode.model.Product;
+import com.bobocode.util.JdbcTemplate;
+import com.bobocode.util.MultiLoadResult;
+import com.bobocode.util.Page;
+import com.bobocode.util.RecordRowMapper;
+import com.bobocode.util.RowMapper;
+import com.bobocode.util.StatementBinder;
+import com.bobocode.util.TransactionManager;
+import com.bobocode.util.UpsertResult;
 
-import java.math.BigDecimal;
 import java.sql.*;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
+/**
+ * {@link ProductDao} implementation based on {@link JdbcTemplate}. Every method runs in its own connection unless
+ * it is called within {@link TransactionManager#inTransaction(TransactionManager.TransactionCallback)} of the
+ * same {@link TransactionManager}. In that case multi-step operations share one connection and one commit:
+ * <pre>{@code
+ * TransactionManager transactionManager = new TransactionManager(dataSource);
+ * ProductDao productDao = new ProductDaoImpl(transactionManager);
+ * transactionManager.inTransaction(() -> {
+ *     productDao.save(product);
+ *     productDao.update(product);
+ *     return productDao.findOne(product.getId());
+ * });
+ * }</pre>
+ */
 public class ProductDaoImpl implements ProductDao {
 
     private static final String SQL_INSERT = """
             INSERT INTO products (name, producer, price, expiration_date) VALUES (?,?,?,?);
             """;
 
+    private static final String SQL_UPSERT_POSTGRES = """
+            INSERT INTO products (name, producer, price, expiration_date, id) VALUES (?,?,?,?,?)
+            ON CONFLICT (id) DO UPDATE SET
+            name = EXCLUDED.name,
+            producer = EXCLUDED.producer,
+            price = EXCLUDED.price,
+            expiration_date = EXCLUDED.expiration_date
+            RETURNING id, (xmax = 0) AS inserted;
+            """;
+
+    private static final String SQL_MERGE_H2 = """
+            MERGE INTO products (name, producer, price, expiration_date, id) KEY (id) VALUES (?,?,?,?,?);
+            """;
+
+    private static final String SQL_ADVANCE_ID_SEQUENCE_POSTGRES = """
+            SELECT setval(pg_get_serial_sequence('products', 'id'),
+                          GREATEST(?, nextval(pg_get_serial_sequence('products', 'id'))));
+            """;
+
     private static final String SQL_SELECT_ALL = "SELECT * FROM products" ;
+    private static final String SQL_SELECT_ALL_COLUMNS = "SELECT %s FROM products";
+    private static final Set<String> PRODUCT_COLUMNS = Set.of("id", "name", "producer", "price", "expiration_date", "creation_time");
+    private static final String SQL_FIND_PAGE = "SELECT * FROM products WHERE id > ? ORDER BY id LIMIT ?";
     private static final String SQL_FIND_BY_ID = "SELECT * FROM products WHERE id=?" ;
+    private static final String SQL_SELECT_IDS = "SELECT id FROM products WHERE %s";
+    private static final String SQL_SELECT_IDS_FOR_UPDATE = "SELECT id FROM products WHERE %s FOR UPDATE";
+    private static final String SQL_SELECT_BY_IDS = "SELECT * FROM products WHERE %s";
 
     private static final String SQL_UPDATE = """
             UPDATE products
@@ -31,145 +83,391 @@ public class ProductDaoImpl implements ProductDao {
             """;
 
     private static final String SQL_DELETE = "DELETE FROM products WHERE id = ?;";
+    private static final String SQL_DELETE_BY_IDS = "DELETE FROM products WHERE %s";
 
-    private final DataSource dataSource;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int STREAM_FETCH_SIZE = 1_000;
+    private static final RowMapper<Product> PRODUCT_ROW_MAPPER = new ProductRowMapper();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
 
     public ProductDaoImpl(DataSource dataSource) {
-        this.dataSource = dataSource;
+        this(dataSource, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param dataSource database connection source
+     * @param batchSize  maximum number of rows sent to the database in one JDBC batch by bulk operations
+     */
+    public ProductDaoImpl(DataSource dataSource, int batchSize) {
+        this(new TransactionManager(dataSource), batchSize);
+    }
+
+    public ProductDaoImpl(TransactionManager transactionManager) {
+        this(transactionManager, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param transactionManager manager whose transactions the DAO joins
+     * @param batchSize          maximum number of rows sent to the database in one JDBC batch by bulk operations
+     */
+    public ProductDaoImpl(TransactionManager transactionManager, int batchSize) {
+        if(batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.jdbcTemplate = new JdbcTemplate(transactionManager);
+        this.batchSize = batchSize;
     }
 
     @Override
     public void save(final Product product) {
-        try(Connection connection = dataSource.getConnection()) {
-            save(product, connection);
+        try {
+            final long generatedId = jdbcTemplate.insertReturningKey(
+                    SQL_INSERT,
+                    preparedStatement -> fillPreparedStatementWithProductFields(product, preparedStatement)
+            );
+            product.setId(generatedId);
         } catch(SQLException e) {
             throw new DaoOperationException(String.format("Error saving product: %s", product), e);
         }
     }
 
-    private void save(final Product product, final Connection connection) throws SQLException {
-        final PreparedStatement preparedStatement = getInsertStatement(product, connection);
-        preparedStatement.executeUpdate();
-        final Long generatedId = getGeneratedId(preparedStatement);
-        product.setId(generatedId);
-    }
-
-    private Long getGeneratedId(final PreparedStatement preparedStatement) throws SQLException {
-        final ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
-        if(generatedKeys.next()) {
-            return generatedKeys.getLong(1);
-        } else {
-            throw new DaoOperationException("Cannot generate product ID");
+    @Override
+    public void saveAll(final Collection<Product> products) {
+        try {
+            jdbcTemplate.batchInsertReturningKeys(
+                    SQL_INSERT,
+                    products,
+                    (preparedStatement, product) -> fillPreparedStatementWithProductFields(product, preparedStatement),
+                    batchSize,
+                    Product::setId
+            );
+        } catch(SQLException e) {
+            products.forEach(product -> product.setId(null));
+            throw new DaoOperationException(String.format("Error saving %d products", products.size()), e);
+        } catch(RuntimeException e) {
+            products.forEach(product -> product.setId(null));
+            throw e;
         }
     }
 
-    private PreparedStatement getInsertStatement(final Product product, final Connection connection) {
+    /**
+     * Products without IDs go through the same batched insert as {@link ProductDaoImpl#saveAll(Collection)}. The
+     * other products are written with one batch of dialect-specific upserts, so a row inserted concurrently by
+     * another transaction is updated rather than failing the batch. An ID that occurs more than once is written and
+     * counted once, with the last of its products.
+     * <p>
+     * On PostgreSQL every upsert returns {@code xmax = 0} for a row it inserted, so the counts come from the same
+     * statements, and the {@code SERIAL} sequence is then advanced past the inserted IDs, so later generated IDs do
+     * not collide with them. {@code MERGE} of H2 reports neither, so there the stored IDs are read and locked in the
+     * same transaction right before the merge; a row inserted concurrently in between is counted as inserted. H2
+     * moves the identity past explicitly inserted IDs by itself.
+     */
+    @Override
+    public UpsertResult upsertAll(final Collection<Product> products) {
+        final List<Product> newProducts = products.stream().filter(product -> product.getId() == null).toList();
+        final Map<Long, Product> storedProductsById = new LinkedHashMap<>();
+        products.stream().filter(product -> product.getId() != null)
+                .forEach(product -> storedProductsById.put(product.getId(), product));
+        final List<Product> storedProducts = List.copyOf(storedProductsById.values());
         try {
-            final PreparedStatement preparedStatement = connection.prepareStatement(
-                    SQL_INSERT,
-                    Statement.RETURN_GENERATED_KEYS
-            );
-            fillPreparedStatementWithProductFields(product, preparedStatement);
-            return preparedStatement;
+            return jdbcTemplate.getTransactionManager().inTransaction(() -> {
+                if(!newProducts.isEmpty()) {
+                    saveAll(newProducts);
+                }
+                final int insertedStoredProducts = storedProducts.isEmpty() ? 0 : switch(jdbcTemplate.getDialect()) {
+                    case POSTGRES -> upsertPostgres(storedProducts);
+                    case H2 -> mergeH2(storedProducts);
+                };
+                return new UpsertResult(newProducts.size() + insertedStoredProducts,
+                        storedProducts.size() - insertedStoredProducts);
+            });
         } catch(SQLException e) {
-            throw new DaoOperationException(String.format("Cannot prepare statement for product: %s", product), e);
+            newProducts.forEach(product -> product.setId(null));
+            throw new DaoOperationException(String.format("Error upserting %d products", products.size()), e);
+        } catch(RuntimeException e) {
+            newProducts.forEach(product -> product.setId(null));
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of inserted rows
+     */
+    private int upsertPostgres(final List<Product> products) throws SQLException {
+        final List<Long> insertedIds = jdbcTemplate.batchUpdateReturning(SQL_UPSERT_POSTGRES, products,
+                (preparedStatement, product) -> fillPreparedStatementWithProductFieldsAndId(product, preparedStatement),
+                batchSize,
+                resultSet -> resultSet.getBoolean("inserted") ? resultSet.getLong("id") : null
+        ).stream().filter(Objects::nonNull).toList();
+        if(!insertedIds.isEmpty()) {
+            final long maxId = Collections.max(insertedIds);
+            jdbcTemplate.query(SQL_ADVANCE_ID_SEQUENCE_POSTGRES,
+                    preparedStatement -> preparedStatement.setLong(1, maxId), resultSet -> resultSet.getLong(1));
         }
+        return insertedIds.size();
+    }
+
+    /**
+     * Returns the number of inserted rows
+     */
+    private int mergeH2(final List<Product> products) throws SQLException {
+        final Set<Long> existingIds = findExistingIds(SQL_SELECT_IDS_FOR_UPDATE, products.stream().map(Product::getId).toList());
+        jdbcTemplate.batchUpdate(SQL_MERGE_H2, products,
+                (preparedStatement, product) -> fillPreparedStatementWithProductFieldsAndId(product, preparedStatement),
+                batchSize);
+        return products.size() - existingIds.size();
+    }
+
+    /**
+     * Returns the IDs that are stored in the database
+     */
+    private Set<Long> findExistingIds(final List<Long> ids) throws SQLException {
+        return findExistingIds(SQL_SELECT_IDS, ids);
+    }
+
+    private Set<Long> findExistingIds(final String sqlTemplate, final List<Long> ids) throws SQLException {
+        final Set<Long> existingIds = new HashSet<>();
+        final RowMapper<Long> idMapper = resultSet -> resultSet.getLong(1);
+        for(List<Long> chunk : splitIds(ids)) {
+            existingIds.addAll(jdbcTemplate.query(formatIdSetSql(sqlTemplate, chunk), bindIds(chunk), idMapper));
+        }
+        return existingIds;
+    }
+
+    /**
+     * PostgreSQL gets all the IDs in one array parameter, so the statement text does not depend on their number.
+     * Other databases get {@code IN} lists of at most batchSize IDs.
+     */
+    private List<List<Long>> splitIds(final List<Long> ids) throws SQLException {
+        if(ids.isEmpty() || jdbcTemplate.getDialect().supportsArrayParameters()) {
+            return ids.isEmpty() ? List.of() : List.of(ids);
+        }
+        final List<List<Long>> chunks = new ArrayList<>();
+        for(int from = 0; from < ids.size(); from += batchSize) {
+            chunks.add(ids.subList(from, Math.min(from + batchSize, ids.size())));
+        }
+        return chunks;
+    }
+
+    private String formatIdSetSql(final String sqlTemplate, final List<Long> ids) throws SQLException {
+        final String condition = jdbcTemplate.getDialect().supportsArrayParameters()
+                ? "id = ANY(?)"
+                : String.format("id IN (%s)", String.join(",", Collections.nCopies(ids.size(), "?")));
+        return String.format(sqlTemplate, condition);
+    }
+
+    private StatementBinder bindIds(final List<Long> ids) throws SQLException {
+        if(jdbcTemplate.getDialect().supportsArrayParameters()) {
+            return preparedStatement -> preparedStatement.setArray(
+                    1, preparedStatement.getConnection().createArrayOf("bigint", ids.toArray()));
+        }
+        return preparedStatement -> {
+            for(int i = 0; i < ids.size(); i++) {
+                preparedStatement.setLong(i + 1, ids.get(i));
+            }
+        };
     }
 
     private static void fillPreparedStatementWithProductFields(final Product product, final PreparedStatement preparedStatement) throws SQLException {
-        preparedStatement.setString(1, product.getName());
-        preparedStatement.setString(2, product.getProducer());
-        preparedStatement.setBigDecimal(3, product.getPrice());
-        preparedStatement.setDate(4, Date.valueOf(product.getExpirationDate()));
+        fillPreparedStatementWithProductFields(product, 1, preparedStatement);
+    }
+
+    private static void fillPreparedStatementWithProductFieldsAndId(final Product product,
+                                                                    final PreparedStatement preparedStatement) throws SQLException {
+        fillPreparedStatementWithProductFields(product, preparedStatement);
+        preparedStatement.setLong(5, product.getId());
+    }
+
+    private static void fillPreparedStatementWithProductFields(final Product product, final int firstIndex,
+                                                               final PreparedStatement preparedStatement) throws SQLException {
+        preparedStatement.setString(firstIndex, product.getName());
+        preparedStatement.setString(firstIndex + 1, product.getProducer());
+        preparedStatement.setBigDecimal(firstIndex + 2, product.getPrice());
+        preparedStatement.setDate(firstIndex + 3, Date.valueOf(product.getExpirationDate()));
     }
 
     @Override
     public List<Product> findAll() {
-        try(Connection connection = dataSource.getConnection()) {
-            final Statement statement = connection.createStatement();
-            final ResultSet resultSet = statement.executeQuery(SQL_SELECT_ALL);
-            return getProductList(resultSet);
+        try {
+            return jdbcTemplate.query(SQL_SELECT_ALL, StatementBinder.NO_PARAMETERS, PRODUCT_ROW_MAPPER);
         } catch(SQLException e) {
             throw new DaoOperationException("Cannot find all products", e);
         }
     }
 
-    private List<Product> getProductList(final ResultSet resultSet) throws SQLException {
-        final List<Product> products = new ArrayList<>(resultSet.getFetchSize());
-        while(resultSet.next()) {
-            products.add(getProduct(resultSet));
+    @Override
+    public <R extends Record> List<R> findAll(final Class<R> projection) {
+        final RecordRowMapper<R> rowMapper = RecordRowMapper.of(projection);
+        final List<String> columns = rowMapper.getColumns();
+        if(!PRODUCT_COLUMNS.containsAll(columns)) {
+            throw new IllegalArgumentException(String.format("Projection %s has columns %s, products have %s",
+                    projection.getSimpleName(), columns, PRODUCT_COLUMNS));
+        }
+        try {
+            return jdbcTemplate.query(String.format(SQL_SELECT_ALL_COLUMNS, String.join(", ", columns)),
+                    StatementBinder.NO_PARAMETERS, rowMapper);
+        } catch(SQLException e) {
+            throw new DaoOperationException(String.format("Cannot find all products as %s", projection.getSimpleName()), e);
+        }
+    }
+
+    @Override
+    public Page<Product> findPage(final Long cursor, final int size) {
+        if(size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        try {
+            final List<Product> products = jdbcTemplate.query(SQL_FIND_PAGE, preparedStatement -> {
+                preparedStatement.setLong(1, cursor == null ? Long.MIN_VALUE : cursor);
+                preparedStatement.setInt(2, size + 1);
+            }, PRODUCT_ROW_MAPPER);
+            return Page.fromLookahead(products, size, Product::getId);
+        } catch(SQLException e) {
+            throw new DaoOperationException(String.format("Cannot find products page after ID=%s", cursor), e);
         }
-        return products;
     }
 
-    private Product getProduct(final ResultSet resultSet) throws SQLException {
-        final long id = resultSet.getLong("id");
-        final String name = resultSet.getString("name");
-        final String producer = resultSet.getString("producer");
-        final BigDecimal price = resultSet.getBigDecimal("price");
-        final LocalDate expirationDate = resultSet.getDate("expiration_date").toLocalDate();
-        final LocalDateTime creationTime = resultSet.getTimestamp("creation_time").toLocalDateTime();
-        return new Product(id, name, producer, price, expirationDate, creationTime);
+    /**
+     * Outside of a transaction auto-commit is disabled and the fetch size is set, so the PostgreSQL driver reads
+     * the result set through a server-side cursor instead of loading all rows at once.
+     */
+    @Override
+    public Stream<Product> streamAll() {
+        try {
+            return jdbcTemplate.queryForStream(
+                    SQL_SELECT_ALL,
+                    StatementBinder.NO_PARAMETERS,
+                    PRODUCT_ROW_MAPPER,
+                    STREAM_FETCH_SIZE,
+                    e -> new DaoOperationException("Cannot read products stream", e)
+            );
+        } catch(SQLException e) {
+            throw new DaoOperationException("Cannot stream all products", e);
+        }
     }
 
     @Override
     public Product findOne(final Long id) {
-        try(Connection connection = dataSource.getConnection()) {
-            final PreparedStatement preparedStatement = connection.prepareStatement(SQL_FIND_BY_ID);
-            preparedStatement.setLong(1, id);
-            final ResultSet resultSet = preparedStatement.executeQuery();
-            if(resultSet.next()) {
-                return getProduct(resultSet);
-            } else {
-                throw new DaoOperationException(String.format("Cannot find product with ID=%s", id));
-            }
+        try {
+            return jdbcTemplate.queryForOptional(
+                    SQL_FIND_BY_ID,
+                    preparedStatement -> preparedStatement.setLong(1, id),
+                    PRODUCT_ROW_MAPPER
+            ).orElseThrow(() -> new DaoOperationException(String.format("Cannot find product with ID=%s", id)));
         } catch(SQLException e) {
             throw new DaoOperationException(String.format("Cannot find product with ID=%s", id), e);
         }
     }
 
+    /**
+     * IDs are sent as one array parameter on PostgreSQL and as {@code IN} lists of at most batchSize IDs on other
+     * databases.
+     */
+    @Override
+    public MultiLoadResult<Product> findAllById(final Collection<Long> ids) {
+        if(ids.stream().anyMatch(Objects::isNull)) {
+            throw new DaoOperationException("Product ID cannot be null");
+        }
+        final List<Long> distinctIds = ids.stream().distinct().toList();
+        try {
+            final List<Product> products = new ArrayList<>(distinctIds.size());
+            for(List<Long> chunk : splitIds(distinctIds)) {
+                products.addAll(jdbcTemplate.query(formatIdSetSql(SQL_SELECT_BY_IDS, chunk), bindIds(chunk), PRODUCT_ROW_MAPPER));
+            }
+            return MultiLoadResult.of(distinctIds, products, Product::getId);
+        } catch(SQLException e) {
+            throw new DaoOperationException(String.format("Cannot find %d products by ID", distinctIds.size()), e);
+        }
+    }
+
     @Override
     public void update(final Product product) {
         if(product.getId() == null) {
             throw new DaoOperationException("Product ID cannot be null");
         }
-        try(Connection connection = dataSource.getConnection()) {
-            final PreparedStatement preparedStatement = connection.prepareStatement(SQL_UPDATE);
-            fillPreparedStatementWithProductFields(product, preparedStatement);
-            preparedStatement.setLong(5, product.getId());
-            final int rowsAffected = preparedStatement.executeUpdate();
+        try {
+            final int rowsAffected = jdbcTemplate.update(SQL_UPDATE, preparedStatement -> {
+                fillPreparedStatementWithProductFields(product, preparedStatement);
+                preparedStatement.setLong(5, product.getId());
+            });
             checkExecuteUpdateResult(rowsAffected, product.getId());
         } catch(SQLException e) {
             throw new DaoOperationException(String.format("Cannot update product: %s", product), e);
         }
     }
 
+    @Override
+    public void updateAll(final Collection<Product> products) {
+        if(products.stream().anyMatch(product -> product.getId() == null)) {
+            throw new DaoOperationException("Product ID cannot be null");
+        }
+        final List<Product> productList = List.copyOf(products);
+        try {
+            jdbcTemplate.getTransactionManager().inTransaction(() -> {
+                final int[] rowsAffected = jdbcTemplate.batchUpdate(SQL_UPDATE, productList, (preparedStatement, product) -> {
+                    fillPreparedStatementWithProductFields(product, preparedStatement);
+                    preparedStatement.setLong(5, product.getId());
+                }, batchSize);
+                for(int i = 0; i < rowsAffected.length; i++) {
+                    if(rowsAffected[i] != Statement.SUCCESS_NO_INFO) {
+                        checkExecuteUpdateResult(rowsAffected[i], productList.get(i).getId());
+                    }
+                }
+                return null;
+            });
+        } catch(SQLException e) {
+            throw new DaoOperationException(String.format("Cannot update %d products", products.size()), e);
+        }
+    }
+
     @Override
     public void remove(final Product product) {
         if(product.getId() == null) {
             throw new DaoOperationException("Product ID cannot be null");
         }
-        try(Connection connection = dataSource.getConnection()) {
-            final PreparedStatement preparedStatement = getDeleteStatement(connection, product);
-            final int rowsAffected = preparedStatement.executeUpdate();
+        try {
+            final int rowsAffected = jdbcTemplate.update(
+                    SQL_DELETE,
+                    preparedStatement -> preparedStatement.setLong(1, product.getId())
+            );
             checkExecuteUpdateResult(rowsAffected, product.getId());
         } catch(SQLException e) {
             throw new DaoOperationException(String.format("Cannot delete product with ID=%s", product.getId()), e);
         }
     }
 
-    private PreparedStatement getDeleteStatement(final Connection connection, final Product product) {
-        final PreparedStatement preparedStatement;
+    /**
+     * A multi-row {@code DELETE} reports only the total number of deleted rows, so the IDs are looked up first to
+     * name the missing ones, and the total is checked afterwards in case a row was removed concurrently.
+     */
+    @Override
+    public void removeAll(final Collection<Long> ids) {
+        if(ids.stream().anyMatch(Objects::isNull)) {
+            throw new DaoOperationException("Product ID cannot be null");
+        }
+        final List<Long> distinctIds = ids.stream().distinct().toList();
         try {
-            preparedStatement = connection.prepareStatement(SQL_DELETE);
-            preparedStatement.setLong(1, product.getId());
+            jdbcTemplate.getTransactionManager().inTransaction(() -> {
+                final Set<Long> existingIds = findExistingIds(distinctIds);
+                final List<Long> missingIds = distinctIds.stream().filter(id -> !existingIds.contains(id)).toList();
+                if(!missingIds.isEmpty()) {
+                    throw new DaoOperationException(String.format("Cannot execute operation on products=%s", missingIds));
+                }
+                int rowsAffected = 0;
+                for(List<Long> chunk : splitIds(distinctIds)) {
+                    rowsAffected += jdbcTemplate.update(formatIdSetSql(SQL_DELETE_BY_IDS, chunk), bindIds(chunk));
+                }
+                if(rowsAffected != distinctIds.size()) {
+                    throw new DaoOperationException(String.format(
+                            "Cannot execute operation on products: %d of %d removed", rowsAffected, distinctIds.size()));
+                }
+                return null;
+            });
         } catch(SQLException e) {
-            throw new DaoOperationException(
-                    String.format("Cannot prepare statement for product with ID=%s", product.getId()),
-                    e
-            );
+            throw new DaoOperationException(String.format("Cannot delete %d products", ids.size()), e);
         }
-        return preparedStatement;
     }
 
     private void checkExecuteUpdateResult(final int rowsAffected, final Long productId) {
@@ -0,0 +1,43 @@
+package com.bobocode.dao;
+
+import com.bobocode.model.Product;
+import com.bobocode.util.ColumnIndexes;
+import com.bobocode.util.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * {@link ProductRowMapper} maps a row of the "products" table to {@link Product}. Column positions are resolved
+ * once per result set, and dates are read directly as {@link LocalDate}/{@link LocalDateTime} without
+ * {@link java.sql.Date}/{@link java.sql.Timestamp} intermediates.
+ */
+public class ProductRowMapper implements RowMapper<Product> {
+
+    @Override
+    public Product mapRow(final ResultSet resultSet) throws SQLException {
+        return bind(resultSet.getMetaData()).mapRow(resultSet);
+    }
+
+    @Override
+    public RowMapper<Product> bind(final ResultSetMetaData metaData) throws SQLException {
+        final ColumnIndexes columns = ColumnIndexes.of(metaData);
+        final int id = columns.indexOf("id");
+        final int name = columns.indexOf("name");
+        final int producer = columns.indexOf("producer");
+        final int price = columns.indexOf("price");
+        final int expirationDate = columns.indexOf("expiration_date");
+        final int creationTime = columns.indexOf("creation_time");
+        return resultSet -> new Product(
+                resultSet.getLong(id),
+                resultSet.getString(name),
+                resultSet.getString(producer),
+                resultSet.getBigDecimal(price),
+                resultSet.getObject(expirationDate, LocalDate.class),
+                resultSet.getObject(creationTime, LocalDateTime.class)
+        );
+    }
+}
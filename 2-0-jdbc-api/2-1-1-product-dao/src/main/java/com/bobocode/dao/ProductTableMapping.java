@@ -0,0 +1,21 @@
+package com.bobocode.dao;
+
+import com.bobocode.model.Product;
+import com.bobocode.util.BulkLoader;
+import com.bobocode.util.TableMapping;
+
+/**
+ * Columns of the {@code products} table written by {@link BulkLoader}. The layout is the same as in the insert
+ * statement of {@link ProductDaoImpl}: the id and the creation time are generated by the database.
+ */
+public final class ProductTableMapping {
+    public static final TableMapping<Product> PRODUCTS = TableMapping.<Product>builder("products")
+            .column("name", Product::getName)
+            .column("producer", Product::getProducer)
+            .column("price", Product::getPrice)
+            .column("expiration_date", Product::getExpirationDate)
+            .build();
+
+    private ProductTableMapping() {
+    }
+}
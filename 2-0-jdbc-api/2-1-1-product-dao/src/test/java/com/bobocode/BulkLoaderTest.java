@@ -0,0 +1,60 @@
+package com.bobocode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bobocode.dao.ProductTableMapping;
+import com.bobocode.model.Product;
+import com.bobocode.util.BulkLoadResult;
+import com.bobocode.util.BulkLoader;
+import com.bobocode.util.JdbcUtil;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import javax.sql.DataSource;
+import org.assertj.core.api.recursive.comparison.RecursiveComparisonConfiguration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Loads products through {@link ProductTableMapping}. The COPY and batch-insert paths of {@link BulkLoader} itself
+ * are covered by the BulkLoaderTest of jdbc-util.
+ */
+class BulkLoaderTest extends AbstractDaoTest {
+
+    private static DataSource dataSource;
+
+    @BeforeAll
+    static void init() throws SQLException {
+        dataSource = JdbcUtil.createInMemoryH2DataSource("jdbc:h2:mem:product_bulk_loader_test;DB_CLOSE_DELAY=-1", "sa", "");
+        createTable(dataSource);
+    }
+
+    @Test
+    @DisplayName("products are loaded with all the mapped columns, and the database generates ids and creation times")
+    void loadProducts() throws SQLException {
+        List<Product> products = createTestProductList();
+
+        BulkLoadResult result = new BulkLoader<>(dataSource, ProductTableMapping.PRODUCTS, 2).load(products);
+
+        assertThat(result.rows()).isEqualTo(products.size());
+        List<Product> storedProducts = findAllFromDatabase();
+        RecursiveComparisonConfiguration recursiveComparisonConfiguration = RecursiveComparisonConfiguration.builder()
+                .withIgnoredFields("id", "creationTime")
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .build();
+        assertThat(storedProducts).usingRecursiveFieldByFieldElementComparator(recursiveComparisonConfiguration)
+                .containsExactlyInAnyOrderElementsOf(products);
+        assertThat(storedProducts).extracting(Product::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(storedProducts).extracting(Product::getCreationTime).doesNotContainNull();
+    }
+
+    private List<Product> findAllFromDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            return collectToList(statement.executeQuery("SELECT * FROM products;"));
+        }
+    }
+}
@@ -2,13 +2,23 @@ package com.bobocode;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import com.bobocode.dao.ProductDao;
 import com.bobocode.dao.ProductDaoImpl;
 import com.bobocode.exception.DaoOperationException;
 import com.bobocode.model.Product;
 import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.MultiLoadResult;
+import com.bobocode.util.Page;
+import com.bobocode.util.PoolConfig;
+import com.bobocode.util.PoolMetrics;
+import com.bobocode.util.PooledDataSource;
+import com.bobocode.util.TransactionManager;
+import com.bobocode.util.UpsertResult;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.ResultSet;
@@ -16,8 +26,10 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 import lombok.SneakyThrows;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -239,6 +251,336 @@ class ProductDaoTest extends AbstractDaoTest {
                 .isThrownBy(() -> productDao.remove(new Product()));
     }
 
+    @Test
+    @Order(16)
+    @DisplayName("saveAll stores products and sets generated ids in order")
+    void saveAll() {
+        List<Product> products = Stream.generate(this::generateTestProduct).limit(7).toList();
+
+        new ProductDaoImpl(spyDataSource, 3).saveAll(products);
+        List<Product> storedProducts = findAllFromDataBase();
+
+        assertThat(products).extracting(Product::getId).doesNotContainNull().isSorted();
+        assertThat(storedProducts).containsExactlyInAnyOrderElementsOf(products);
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("saveAll rolls back all products when one of them is not valid")
+    void saveAllRollsBackWhenProductIsNotValid() {
+        List<Product> products = Stream.generate(this::generateTestProduct).limit(5).toList();
+        products.get(3).setProducer(null);
+
+        assertThatExceptionOfType(DaoOperationException.class)
+                .isThrownBy(() -> new ProductDaoImpl(spyDataSource, 2).saveAll(products));
+
+        assertThat(findAllFromDataBase()).isEmpty();
+        assertThat(products).extracting(Product::getId).containsOnlyNulls();
+    }
+
+    @Test
+    @Order(18)
+    @DisplayName("saveAll wraps DB errors with a custom exception")
+    @SneakyThrows
+    void saveAllWrapsSqlException() {
+        mockDataSourceToThrowError();
+        assertThatExceptionOfType(DaoOperationException.class)
+                .isThrownBy(() -> productDao.saveAll(List.of(generateTestProduct())));
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("streamAll loads all products from the DB")
+    void streamAll() {
+        List<Product> products = givenStoredProductsFromDB();
+
+        try (Stream<Product> productStream = productDao.streamAll()) {
+            assertThat(productStream.toList()).isEqualTo(products);
+        }
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("streamAll closes the connection when the stream is closed")
+    @SneakyThrows
+    void streamAllClosesConnection() {
+        givenStoredProductsFromDB();
+        List<Connection> connections = new ArrayList<>();
+        doAnswer(invocation -> {
+            Connection connection = (Connection) invocation.callRealMethod();
+            connections.add(connection);
+            return connection;
+        }).when(spyDataSource).getConnection();
+
+        try (Stream<Product> productStream = productDao.streamAll()) {
+            assertThat(productStream.findFirst()).isPresent();
+            assertThat(connections).singleElement().satisfies(connection -> assertThat(connection.isClosed()).isFalse());
+        }
+
+        assertThat(connections).singleElement().satisfies(connection -> assertThat(connection.isClosed()).isTrue());
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("streamAll wraps DB errors with a custom exception")
+    @SneakyThrows
+    void streamAllWrapsSqlExceptions() {
+        mockDataSourceToThrowError();
+        assertThatExceptionOfType(DaoOperationException.class).isThrownBy(() -> productDao.streamAll());
+    }
+
+    @Test
+    @Order(22)
+    @DisplayName("findPage returns products page by page using the cursor")
+    void findPage() {
+        List<Product> products = Stream.generate(this::generateTestProduct).limit(5).toList();
+        products.forEach(this::saveToDB);
+
+        Page<Product> firstPage = productDao.findPage(null, 2);
+        Page<Product> secondPage = productDao.findPage(firstPage.nextCursor(), 2);
+        Page<Product> lastPage = productDao.findPage(secondPage.nextCursor(), 2);
+
+        assertThat(firstPage.content()).containsExactlyElementsOf(products.subList(0, 2));
+        assertThat(secondPage.content()).containsExactlyElementsOf(products.subList(2, 4));
+        assertThat(lastPage.content()).containsExactlyElementsOf(products.subList(4, 5));
+        assertThat(lastPage.hasNext()).isFalse();
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("findPage wraps DB errors with a custom exception")
+    @SneakyThrows
+    void findPageWrapsSqlExceptions() {
+        mockDataSourceToThrowError();
+        assertThatExceptionOfType(DaoOperationException.class).isThrownBy(() -> productDao.findPage(null, 10));
+    }
+
+    @Test
+    @Order(24)
+    @DisplayName("DAO operations reuse prepared statements of a pooled connection")
+    void operationsReusePreparedStatements() {
+        try (PooledDataSource pooledDataSource = JdbcUtil.createPooledDataSource(
+                originalDataSource, PoolConfig.builder().minIdle(0).maxPoolSize(1).build())) {
+            ProductDao pooledProductDao = new ProductDaoImpl(pooledDataSource);
+            Product product = generateTestProduct();
+
+            pooledProductDao.save(product);
+            pooledProductDao.findOne(product.getId());
+            pooledProductDao.findOne(product.getId());
+            pooledProductDao.update(product);
+            pooledProductDao.update(product);
+
+            PoolMetrics metrics = pooledDataSource.getMetrics();
+            assertThat(metrics.statementCacheMisses()).isEqualTo(3);
+            assertThat(metrics.statementCacheHits()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @Order(25)
+    @DisplayName("multi-step operations within a transaction share one connection")
+    @SneakyThrows
+    void operationsWithinTransactionShareConnection() {
+        TransactionManager transactionManager = new TransactionManager(spyDataSource);
+        ProductDao transactionalProductDao = new ProductDaoImpl(transactionManager);
+        Product product = generateTestProduct();
+
+        Product foundProduct = transactionManager.inTransaction(() -> {
+            transactionalProductDao.save(product);
+            product.setPrice(BigDecimal.valueOf(150));
+            transactionalProductDao.update(product);
+            return transactionalProductDao.findOne(product.getId());
+        });
+
+        verify(spyDataSource, times(1)).getConnection();
+        assertThat(foundProduct.getPrice()).isEqualByComparingTo(BigDecimal.valueOf(150));
+        assertThat(findAllFromDataBase()).singleElement().isEqualTo(foundProduct);
+    }
+
+    @Test
+    @Order(26)
+    @DisplayName("multi-step operations within a transaction are rolled back together")
+    void operationsWithinTransactionAreRolledBack() {
+        TransactionManager transactionManager = new TransactionManager(spyDataSource);
+        ProductDao transactionalProductDao = new ProductDaoImpl(transactionManager);
+        Product product = generateTestProduct();
+
+        assertThatExceptionOfType(DaoOperationException.class).isThrownBy(() -> transactionManager.inTransaction(() -> {
+            transactionalProductDao.save(product);
+            product.setProducer(null);
+            transactionalProductDao.update(product);
+            return null;
+        }));
+
+        assertThat(findAllFromDataBase()).isEmpty();
+    }
+
+    @Test
+    @Order(27)
+    @DisplayName("upsertAll inserts new products, updates stored ones and counts both")
+    void upsertAll() {
+        Product storedProduct = givenStoredProductFromDB();
+        storedProduct.setPrice(BigDecimal.valueOf(999));
+        Product productWithNewId = generateTestProduct();
+        productWithNewId.setId(storedProduct.getId() + 1000);
+        Product newProduct = generateTestProduct();
+
+        UpsertResult result = new ProductDaoImpl(spyDataSource, 2)
+                .upsertAll(List.of(storedProduct, productWithNewId, newProduct));
+
+        assertThat(result).isEqualTo(new UpsertResult(2, 1));
+        assertThat(newProduct.getId()).isNotNull();
+        assertThat(findOneFromDatabase(storedProduct.getId()).getPrice()).isEqualByComparingTo(BigDecimal.valueOf(999));
+        assertThat(findAllFromDataBase()).containsExactlyInAnyOrder(storedProduct, productWithNewId, newProduct);
+    }
+
+    @Test
+    @Order(28)
+    @DisplayName("upsertAll writes and counts a repeated ID once, with its last product")
+    void upsertAllCountsRepeatedIdOnce() {
+        Product storedProduct = givenStoredProductFromDB();
+        Product firstWithNewId = generateTestProduct();
+        firstWithNewId.setId(storedProduct.getId() + 1000);
+        Product lastWithNewId = generateTestProduct();
+        lastWithNewId.setId(firstWithNewId.getId());
+        Product updatedStoredProduct = generateTestProduct();
+        updatedStoredProduct.setId(storedProduct.getId());
+
+        UpsertResult result = productDao.upsertAll(List.of(firstWithNewId, storedProduct, lastWithNewId, updatedStoredProduct));
+
+        assertThat(result).isEqualTo(new UpsertResult(1, 1));
+        assertThat(findAllFromDataBase()).containsExactlyInAnyOrder(lastWithNewId, updatedStoredProduct);
+    }
+
+    @Test
+    @Order(29)
+    @DisplayName("upsertAll with explicit IDs does not make later generated IDs collide")
+    void upsertAllKeepsGeneratedIdsUnique() {
+        Product productWithId = generateTestProduct();
+        productWithId.setId(givenStoredProductFromDB().getId() + 1);
+        productDao.upsertAll(List.of(productWithId));
+
+        Product newProduct = generateTestProduct();
+        productDao.save(newProduct);
+
+        assertThat(newProduct.getId()).isGreaterThan(productWithId.getId());
+    }
+
+    @Test
+    @Order(30)
+    @DisplayName("upsertAll rolls back all products when one of them is not valid")
+    void upsertAllRollsBackWhenProductIsNotValid() {
+        Product storedProduct = givenStoredProductFromDB();
+        String storedName = storedProduct.getName();
+        storedProduct.setName("updated");
+        Product invalidProduct = generateTestProduct();
+        invalidProduct.setId(storedProduct.getId() + 1000);
+        invalidProduct.setProducer(null);
+        Product newProduct = generateTestProduct();
+
+        assertThatExceptionOfType(DaoOperationException.class)
+                .isThrownBy(() -> productDao.upsertAll(List.of(storedProduct, invalidProduct, newProduct)));
+
+        assertThat(newProduct.getId()).isNull();
+        assertThat(findAllFromDataBase()).singleElement()
+                .satisfies(product -> assertThat(product.getName()).isEqualTo(storedName));
+    }
+
+    @Test
+    @Order(31)
+    @DisplayName("updateAll updates all products in one transaction")
+    void updateAll() {
+        List<Product> products = Stream.generate(this::givenStoredProductFromDB).limit(5).toList();
+        products.forEach(product -> product.setPrice(BigDecimal.valueOf(777)));
+
+        new ProductDaoImpl(spyDataSource, 2).updateAll(products);
+
+        assertThat(findAllFromDataBase()).extracting(Product::getPrice)
+                .allSatisfy(price -> assertThat(price).isEqualByComparingTo(BigDecimal.valueOf(777)));
+    }
+
+    @Test
+    @Order(32)
+    @DisplayName("updateAll rolls back all products when one of them is not stored")
+    void updateAllNotStored() {
+        Product storedProduct = givenStoredProductFromDB();
+        BigDecimal storedPrice = storedProduct.getPrice();
+        storedProduct.setPrice(BigDecimal.valueOf(777));
+        Product notStoredProduct = generateTestProduct();
+        notStoredProduct.setId(storedProduct.getId() + 1000);
+
+        assertThatExceptionOfType(DaoOperationException.class)
+                .isThrownBy(() -> productDao.updateAll(List.of(storedProduct, notStoredProduct)))
+                .withMessage(String.format("Cannot execute operation on product=%s", notStoredProduct.getId()));
+
+        assertThat(findOneFromDatabase(storedProduct.getId()).getPrice()).isEqualByComparingTo(storedPrice);
+    }
+
+    @Test
+    @Order(33)
+    @DisplayName("removeAll removes products by ids in chunks")
+    void removeAll() {
+        List<Product> products = Stream.generate(this::givenStoredProductFromDB).limit(6).toList();
+        List<Long> idsToRemove = products.subList(0, 5).stream().map(Product::getId).toList();
+
+        new ProductDaoImpl(spyDataSource, 2).removeAll(idsToRemove);
+
+        assertThat(findAllFromDataBase()).containsExactly(products.get(5));
+    }
+
+    @Test
+    @Order(34)
+    @DisplayName("removeAll removes nothing when one of the products is not stored")
+    void removeAllNotStored() {
+        Product storedProduct = givenStoredProductFromDB();
+        Long notStoredId = storedProduct.getId() + 1000;
+
+        assertThatExceptionOfType(DaoOperationException.class)
+                .isThrownBy(() -> productDao.removeAll(List.of(storedProduct.getId(), notStoredId)))
+                .withMessage(String.format("Cannot execute operation on products=[%s]", notStoredId));
+
+        assertThat(findAllFromDataBase()).containsExactly(storedProduct);
+    }
+
+    @Test
+    @Order(35)
+    @DisplayName("findAllById returns products in the order of ids and reports missing ids")
+    void findAllById() {
+        List<Product> products = Stream.generate(this::givenStoredProductFromDB).limit(5).toList();
+        Long missingId = products.get(4).getId() + 1000;
+        List<Long> ids = List.of(products.get(3).getId(), missingId, products.get(0).getId(),
+                products.get(4).getId(), products.get(0).getId());
+
+        MultiLoadResult<Product> result = new ProductDaoImpl(spyDataSource, 2).findAllById(ids);
+
+        assertThat(result.found()).containsExactly(products.get(3), products.get(0), products.get(4));
+        assertThat(result.missingIds()).containsExactly(missingId);
+    }
+
+    @Test
+    @Order(36)
+    @DisplayName("findAll with a projection selects only the record columns")
+    void findAllProjection() {
+        List<Product> products = givenStoredProductsFromDB();
+
+        List<ProductPrice> prices = productDao.findAll(ProductPrice.class);
+
+        assertThat(prices).usingRecursiveFieldByFieldElementComparator(RecursiveComparisonConfiguration.builder()
+                        .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                        .build())
+                .containsExactlyInAnyOrderElementsOf(products.stream()
+                        .map(product -> new ProductPrice(product.getId(), product.getPrice()))
+                        .toList());
+    }
+
+    @Test
+    @Order(37)
+    @DisplayName("findAll throws an exception when a projection component is not a column")
+    void findAllProjectionWithUnknownColumn() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> productDao.findAll(ProductDiscount.class));
+    }
+
     private Product givenStoredProductFromDB() {
         Product product = generateTestProduct();
         saveToDB(product);
@@ -302,4 +644,10 @@ class ProductDaoTest extends AbstractDaoTest {
             throw new DaoOperationException(String.format("Error saving product: %s " + e.getMessage(), product), e);
         }
     }
-}
\ No newline at end of file
+
+    private record ProductPrice(Long id, BigDecimal price) {
+    }
+
+    private record ProductDiscount(Long id, BigDecimal discount) {
+    }
+}
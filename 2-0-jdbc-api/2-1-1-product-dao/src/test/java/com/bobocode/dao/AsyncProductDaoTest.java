@@ -0,0 +1,86 @@
+package com.bobocode.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.bobocode.exception.DaoOperationException;
+import com.bobocode.model.Product;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AsyncProductDaoTest {
+
+    @Test
+    @DisplayName("operations complete with the result of the blocking DAO")
+    void findOne() {
+        ProductDao productDao = mock(ProductDao.class);
+        Product product = Product.builder().id(1L).name("Fanta").build();
+        when(productDao.findOne(1L)).thenReturn(product);
+
+        try (AsyncProductDao asyncProductDao = new AsyncProductDao(productDao, 2)) {
+            assertThat(asyncProductDao.findOne(1L).join()).isSameAs(product);
+        }
+    }
+
+    @Test
+    @DisplayName("DAO exceptions complete the future exceptionally")
+    void exceptionsCompleteFuture() {
+        ProductDao productDao = mock(ProductDao.class);
+        when(productDao.findOne(1L)).thenThrow(new DaoOperationException("Cannot find product with ID=1"));
+
+        try (AsyncProductDao asyncProductDao = new AsyncProductDao(productDao, 2)) {
+            assertThatThrownBy(() -> asyncProductDao.findOne(1L).join())
+                    .isInstanceOf(CompletionException.class)
+                    .hasCauseInstanceOf(DaoOperationException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("no more than max concurrency operations reach the DAO at the same time")
+    void concurrencyIsBounded() {
+        ProductDao productDao = mock(ProductDao.class);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(productDao.findOne(anyLong())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            running.decrementAndGet();
+            return new Product();
+        });
+
+        try (AsyncProductDao asyncProductDao = new AsyncProductDao(productDao, 3)) {
+            List<CompletableFuture<Product>> futures = IntStream.range(0, 100)
+                    .mapToObj(id -> asyncProductDao.findOne((long) id))
+                    .toList();
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        }
+
+        assertThat(maxRunning.get()).isBetween(1, 3);
+    }
+
+    @Test
+    @DisplayName("newExecutor falls back to a pool of max concurrency platform threads without virtual threads")
+    void newExecutor() throws Exception {
+        ExecutorService executor = AsyncProductDao.newExecutor(3);
+        try {
+            assertThat(executor.submit(() -> "done").get()).isEqualTo("done");
+            if(executor instanceof ThreadPoolExecutor threadPool) {
+                assertThat(threadPool.getMaximumPoolSize()).isEqualTo(3);
+            } else {
+                assertThat(Runtime.version().feature()).isGreaterThanOrEqualTo(21);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.bobocode.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bobocode.exception.DaoOperationException;
+import com.bobocode.model.Product;
+import com.bobocode.util.MultiLoadResult;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CachingProductDaoTest {
+    private ProductDao productDao;
+    private AtomicLong nanoTime;
+    private CachingProductDao cachingProductDao;
+
+    @BeforeEach
+    void init() {
+        productDao = mock(ProductDao.class);
+        when(productDao.findOne(anyLong())).thenAnswer(invocation -> createProduct(invocation.getArgument(0)));
+        nanoTime = new AtomicLong();
+        cachingProductDao = new CachingProductDao(productDao, 2, Duration.ofMinutes(1), nanoTime::get);
+    }
+
+    @Test
+    @DisplayName("findOne loads a product once and then returns cached copies")
+    void findOneIsCached() {
+        Product first = cachingProductDao.findOne(1L);
+        first.setName("changed by the caller");
+        Product second = cachingProductDao.findOne(1L);
+
+        verify(productDao, times(1)).findOne(1L);
+        assertThat(second.getName()).isEqualTo("Product 1");
+        CachingProductDao.CacheStats stats = cachingProductDao.getStats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.loads()).isEqualTo(1);
+        assertThat(stats.hitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("least recently used product is evicted when the cache is full")
+    void leastRecentlyUsedIsEvicted() {
+        cachingProductDao.findOne(1L);
+        cachingProductDao.findOne(2L);
+        cachingProductDao.findOne(1L);
+        cachingProductDao.findOne(3L);
+        cachingProductDao.findOne(1L);
+        cachingProductDao.findOne(2L);
+
+        verify(productDao, times(1)).findOne(1L);
+        verify(productDao, times(2)).findOne(2L);
+        assertThat(cachingProductDao.getStats().evictions()).isEqualTo(2);
+        assertThat(cachingProductDao.getStats().size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("expired product is loaded again")
+    void expiredProductIsLoadedAgain() {
+        cachingProductDao.findOne(1L);
+        nanoTime.addAndGet(Duration.ofMinutes(1).toNanos());
+        cachingProductDao.findOne(1L);
+
+        verify(productDao, times(2)).findOne(1L);
+        assertThat(cachingProductDao.getStats().expirations()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("save, update and remove invalidate the product, so the next findOne reads the stored row")
+    void writesInvalidateCache() {
+        Product product = cachingProductDao.findOne(1L);
+        product.setPrice(BigDecimal.TEN);
+        cachingProductDao.update(product);
+        cachingProductDao.findOne(1L);
+        cachingProductDao.remove(product);
+        cachingProductDao.findOne(1L);
+        Product newProduct = createProduct(5L);
+        cachingProductDao.save(newProduct);
+        Product storedNewProduct = cachingProductDao.findOne(5L);
+
+        verify(productDao, times(3)).findOne(1L);
+        verify(productDao).findOne(5L);
+        assertThat(storedNewProduct).isEqualTo(newProduct).isNotSameAs(newProduct);
+    }
+
+    @Test
+    @DisplayName("findAllById takes cached products from the cache and loads the others at once")
+    void findAllByIdUsesCache() {
+        when(productDao.findAllById(List.of(2L, 3L)))
+                .thenReturn(new MultiLoadResult<>(List.of(createProduct(2L)), List.of(3L)));
+        cachingProductDao.findOne(1L);
+
+        MultiLoadResult<Product> result = cachingProductDao.findAllById(List.of(2L, 1L, 3L));
+
+        assertThat(result.found()).extracting(Product::getId).containsExactly(2L, 1L);
+        assertThat(result.missingIds()).containsExactly(3L);
+        cachingProductDao.findOne(2L);
+        verify(productDao, never()).findOne(2L);
+    }
+
+    @Test
+    @DisplayName("findAllById does not cache a product updated while the products were being loaded")
+    @SneakyThrows
+    void findAllByIdDoesNotCacheProductUpdatedDuringLoad() {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(productDao.findAllById(List.of(1L, 2L))).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await();
+            return new MultiLoadResult<>(List.of(createProduct(1L), createProduct(2L)), List.of());
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<MultiLoadResult<Product>> multiLoad =
+                    CompletableFuture.supplyAsync(() -> cachingProductDao.findAllById(List.of(1L, 2L)), executor);
+            loadStarted.await();
+            Product updatedProduct = createProduct(1L);
+            updatedProduct.setPrice(BigDecimal.TEN);
+            cachingProductDao.update(updatedProduct);
+            releaseLoad.countDown();
+
+            assertThat(multiLoad.join().found()).extracting(Product::getId).containsExactly(1L, 2L);
+            cachingProductDao.findOne(1L);
+            cachingProductDao.findOne(2L);
+            verify(productDao).findOne(1L);
+            verify(productDao, never()).findOne(2L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("failed loads are not cached")
+    void failedLoadIsNotCached() {
+        when(productDao.findOne(7L)).thenThrow(new DaoOperationException("Cannot find product with ID=7"));
+
+        assertThatExceptionOfType(DaoOperationException.class).isThrownBy(() -> cachingProductDao.findOne(7L));
+        assertThatExceptionOfType(DaoOperationException.class).isThrownBy(() -> cachingProductDao.findOne(7L));
+
+        verify(productDao, times(2)).findOne(7L);
+        assertThat(cachingProductDao.getStats().loadFailures()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("concurrent misses on the same id issue one query")
+    @SneakyThrows
+    void concurrentMissesAreLoadedOnce() {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(productDao.findOne(1L)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await();
+            return createProduct(1L);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CompletableFuture<Product> firstCaller = CompletableFuture.supplyAsync(() -> cachingProductDao.findOne(1L), executor);
+            loadStarted.await();
+            List<CompletableFuture<Product>> otherCallers = IntStream.range(0, 7)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> cachingProductDao.findOne(1L), executor))
+                    .toList();
+            while(cachingProductDao.getStats().misses() < 8) {
+                Thread.onSpinWait();
+            }
+            releaseLoad.countDown();
+
+            assertThat(firstCaller.join().getId()).isEqualTo(1L);
+            assertThat(otherCallers).allSatisfy(caller -> assertThat(caller.join().getId()).isEqualTo(1L));
+            verify(productDao, times(1)).findOne(1L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Product createProduct(Long id) {
+        return Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .producer("Producer")
+                .price(BigDecimal.ONE)
+                .build();
+    }
+}
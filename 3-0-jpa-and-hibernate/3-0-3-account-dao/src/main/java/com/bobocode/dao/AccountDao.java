@@ -1,8 +1,14 @@
 package com.bobocode.dao;
 
 import com.bobocode.model.Account;
+import com.bobocode.util.MultiLoadResult;
+import com.bobocode.util.Page;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * {@link AccountDao} provides an API to access {@link Account} data.
@@ -15,6 +21,40 @@ public interface AccountDao {
      */
     void save(Account account);
 
+    /**
+     * Stores new accounts in a single transaction and sets generated ids to them. The persistence context is flushed
+     * and cleared every {@code hibernate.jdbc.batch_size} accounts, so the memory does not grow with the number of
+     * accounts. Inserts are sent in JDBC batches only when the id is not generated by an identity column, e.g. in the
+     * {@code SingleAccountEntityH2Batch} and {@code SingleAccountEntityPostgresBatch} persistence units.
+     *
+     * @param accounts new accounts
+     */
+    void saveAll(List<Account> accounts);
+
+    /**
+     * Stores new accounts in a single transaction using a stateless session, which does not keep the accounts in a
+     * persistence context. Sets generated ids to the accounts.
+     *
+     * @param accounts new accounts
+     */
+    void bulkInsert(Collection<Account> accounts);
+
+    /**
+     * Updates stored accounts in a single transaction using a stateless session. Every account is updated with one
+     * statement, without loading and dirty checking it first.
+     *
+     * @param accounts stored accounts with updated fields
+     */
+    void bulkUpdate(Collection<Account> accounts);
+
+    /**
+     * Reads all accounts with a forward-only cursor of a stateless session and passes them to the action one by one.
+     * Accounts are not kept after the action returns, so the memory does not grow with the number of rows.
+     *
+     * @param action action performed for every account within the read transaction
+     */
+    void scrollAll(Consumer<Account> action);
+
     /**
      * Returns an {@link Account} instance by its id
      *
@@ -23,6 +63,14 @@ public interface AccountDao {
      */
     Account findById(Long id);
 
+    /**
+     * Returns accounts by a set of ids. Accounts are loaded with a few {@code IN} queries instead of one query per id.
+     *
+     * @param ids account ids, duplicates are ignored
+     * @return found accounts in the order of the ids, and the ids that do not exist
+     */
+    MultiLoadResult<Account> findAllById(Collection<Long> ids);
+
     /**
      * Returns {@link Account} instance by its email
      *
@@ -38,6 +86,23 @@ public interface AccountDao {
      */
     List<Account> findAll();
 
+    /**
+     * Returns all accounts as a stream that reads them with a database cursor, so the accounts are not loaded at once.
+     * The stream holds a connection and a transaction until it is closed, so use it in a try-with-resources block.
+     *
+     * @return stream of all accounts that has to be closed
+     */
+    Stream<Account> streamAll();
+
+    /**
+     * Returns a page of accounts ordered by id using keyset pagination, so deep pages are as cheap as the first one
+     *
+     * @param cursor {@link Page#nextCursor()} of the previous page, or {@code null} to get the first page
+     * @param size   maximum number of accounts on the page
+     * @return page of accounts with a cursor of the next page
+     */
+    Page<Account> findPage(Long cursor, int size);
+
     /**
      * Receives stored {@link Account} instance and updates it in the database
      *
@@ -51,4 +116,13 @@ public interface AccountDao {
      * @param account stored account instance
      */
     void remove(Account account);
+
+    /**
+     * Returns hit, miss and put counts of the second-level cache and query cache regions. The counts are recorded only
+     * when {@code hibernate.generate_statistics} is enabled, as it is in the {@code SingleAccountEntityH2Cached} and
+     * {@code SingleAccountEntityPostgresCached} persistence units. Without a second-level cache the map is empty.
+     *
+     * @return statistics of every cache region by region name
+     */
+    Map<String, CacheRegionStats> getCacheStatistics();
 }
@@ -2,19 +2,55 @@ package com.bobocode.dao;
 
 import com.bobocode.exception.AccountDaoException;
 import com.bobocode.model.Account;
+import com.bobocode.util.EntityStreams;
+import com.bobocode.util.MultiLoadResult;
+import com.bobocode.util.Page;
+import org.hibernate.Cache;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.TypedQuery;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class AccountDaoImpl implements AccountDao {
+    private static final int MULTI_LOAD_BATCH_SIZE = 500;
+    private static final int DEFAULT_SAVE_ALL_FLUSH_SIZE = 50;
+    private static final int SCROLL_FETCH_SIZE = 1000;
+    private static final int STREAM_CLEAR_INTERVAL = 1000;
+    static final String FIND_BY_EMAIL_CACHE_REGION = "account-by-email";
+
     private EntityManagerFactory emf;
+    private final int saveAllFlushSize;
 
     public AccountDaoImpl(EntityManagerFactory emf) {
         this.emf = emf;
+        this.saveAllFlushSize = resolveSaveAllFlushSize(emf);
+    }
+
+    /**
+     * Flushing once per JDBC batch sends every batch full, a unit without batching uses the default flush size
+     */
+    private static int resolveSaveAllFlushSize(EntityManagerFactory emf) {
+        Object batchSize = emf.getProperties().get(AvailableSettings.STATEMENT_BATCH_SIZE);
+        int configuredBatchSize = batchSize == null ? 0 : Integer.parseInt(batchSize.toString().trim());
+        return configuredBatchSize > 0 ? configuredBatchSize : DEFAULT_SAVE_ALL_FLUSH_SIZE;
     }
 
     @Override
@@ -22,11 +58,82 @@ public class AccountDaoImpl implements AccountDao {
         this.performWithinPersistenceContext(entityManager -> entityManager.persist(account));
     }
 
+    @Override
+    public void saveAll(List<Account> accounts) {
+        performWithinPersistenceContext(entityManager -> {
+            for (int i = 0; i < accounts.size(); i++) {
+                entityManager.persist(accounts.get(i));
+                if ((i + 1) % saveAllFlushSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+    }
+
+    /**
+     * A stateless session does not update the query cache timestamps, so the cached email lookups are evicted
+     * afterwards, otherwise an email looked up before it was inserted would still be reported as missing
+     */
+    @Override
+    public void bulkInsert(Collection<Account> accounts) {
+        try {
+            performWithinStatelessSession(session -> accounts.forEach(session::insert));
+        } finally {
+            emf.unwrap(SessionFactory.class).getCache().evictQueryRegion(FIND_BY_EMAIL_CACHE_REGION);
+        }
+    }
+
+    /**
+     * A stateless session bypasses the second-level cache, so the updated accounts and the cached email lookups are
+     * evicted afterwards
+     */
+    @Override
+    public void bulkUpdate(Collection<Account> accounts) {
+        try {
+            performWithinStatelessSession(session -> accounts.forEach(session::update));
+        } finally {
+            Cache cache = emf.unwrap(SessionFactory.class).getCache();
+            accounts.forEach(account -> cache.evictEntityData(Account.class, account.getId()));
+            cache.evictQueryRegion(FIND_BY_EMAIL_CACHE_REGION);
+        }
+    }
+
+    @Override
+    public void scrollAll(Consumer<Account> action) {
+        performWithinStatelessSession(session -> {
+            try (ScrollableResults results = session.createQuery("SELECT acc FROM Account acc", Account.class)
+                    .setFetchSize(SCROLL_FETCH_SIZE)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    action.accept((Account) results.get(0));
+                }
+            }
+        });
+    }
+
     @Override
     public Account findById(Long id) {
         return performReturningWithinPersistenceContext(entityManager -> entityManager.find(Account.class, id));
     }
 
+    /**
+     * Uses Hibernate multi-load, which splits the ids into {@code IN} queries of {@link AccountDaoImpl#MULTI_LOAD_BATCH_SIZE}
+     * ids and returns {@code null} in place of every missing account when ordered return is enabled.
+     */
+    @Override
+    public MultiLoadResult<Account> findAllById(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        return performReturningWithinPersistenceContext(entityManager -> {
+            List<Account> accounts = entityManager.unwrap(Session.class)
+                    .byMultipleIds(Account.class)
+                    .withBatchSize(MULTI_LOAD_BATCH_SIZE)
+                    .enableOrderedReturn(true)
+                    .multiLoad(distinctIds);
+            return MultiLoadResult.of(distinctIds, accounts.stream().filter(Objects::nonNull).toList(), Account::getId);
+        });
+    }
+
     @Override
     public Account findByEmail(String email) {
         return performReturningWithinPersistenceContext(entityManager -> {
@@ -35,6 +142,8 @@ public class AccountDaoImpl implements AccountDao {
                     Account.class
             );
             findByEmailQuery.setParameter("email", email);
+            findByEmailQuery.setHint(QueryHints.CACHEABLE, true);
+            findByEmailQuery.setHint(QueryHints.CACHE_REGION, FIND_BY_EMAIL_CACHE_REGION);
             return findByEmailQuery.getSingleResult();
         });
     }
@@ -46,6 +155,32 @@ public class AccountDaoImpl implements AccountDao {
         );
     }
 
+    @Override
+    public Stream<Account> streamAll() {
+        try {
+            return EntityStreams.stream(emf,
+                    entityManager -> entityManager.createQuery("SELECT acc FROM Account acc", Account.class),
+                    SCROLL_FETCH_SIZE, STREAM_CLEAR_INTERVAL);
+        } catch (RuntimeException e) {
+            throw new AccountDaoException("Cannot stream accounts", e);
+        }
+    }
+
+    @Override
+    public Page<Account> findPage(Long cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return performReturningWithinPersistenceContext(entityManager -> {
+            List<Account> accounts = entityManager.createQuery(
+                            "SELECT acc FROM Account acc WHERE acc.id > :cursor ORDER BY acc.id", Account.class)
+                    .setParameter("cursor", cursor == null ? Long.MIN_VALUE : cursor)
+                    .setMaxResults(size + 1)
+                    .getResultList();
+            return Page.fromLookahead(accounts, size, Account::getId);
+        });
+    }
+
     @Override
     public void update(Account account) {
         performWithinPersistenceContext(entityManager -> entityManager.merge(account));
@@ -59,6 +194,20 @@ public class AccountDaoImpl implements AccountDao {
         });
     }
 
+    @Override
+    public Map<String, CacheRegionStats> getCacheStatistics() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        Map<String, CacheRegionStats> regionStatistics = new TreeMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regionStatistics.put(regionName, new CacheRegionStats(regionName, region.getHitCount(),
+                        region.getMissCount(), region.getPutCount(), region.getElementCountInMemory()));
+            }
+        }
+        return regionStatistics;
+    }
+
     private void performWithinPersistenceContext(final Consumer<EntityManager> entityManagerConsumer) {
         performReturningWithinPersistenceContext(entityManager -> {
            entityManagerConsumer.accept(entityManager);
@@ -66,6 +215,19 @@ public class AccountDaoImpl implements AccountDao {
         });
     }
 
+    private void performWithinStatelessSession(final Consumer<StatelessSession> sessionConsumer) {
+        try (StatelessSession session = emf.unwrap(SessionFactory.class).openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                sessionConsumer.accept(session);
+                transaction.commit();
+            } catch (Exception e) {
+                transaction.rollback();
+                throw new AccountDaoException("Cannot perform transaction", e);
+            }
+        }
+    }
+
     private <T> T performReturningWithinPersistenceContext(final Function<EntityManager, T> entityManagerFunction) {
         final EntityManager entityManager = emf.createEntityManager();
         entityManager.getTransaction().begin();
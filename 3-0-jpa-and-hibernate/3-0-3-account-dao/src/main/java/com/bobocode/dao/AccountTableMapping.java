@@ -0,0 +1,24 @@
+package com.bobocode.dao;
+
+import com.bobocode.model.Account;
+import com.bobocode.util.BulkLoader;
+import com.bobocode.util.TableMapping;
+
+/**
+ * Columns of the {@code account} table written by {@link BulkLoader}, for initial loads that bypass the persistence
+ * context. The id is generated by the database.
+ */
+public final class AccountTableMapping {
+    public static final TableMapping<Account> ACCOUNTS = TableMapping.<Account>builder("account")
+            .column("first_name", Account::getFirstName)
+            .column("last_name", Account::getLastName)
+            .column("email", Account::getEmail)
+            .column("birthday", Account::getBirthday)
+            .column("gender", Account::getGender)
+            .column("creation_time", Account::getCreationTime)
+            .column("balance", Account::getBalance)
+            .build();
+
+    private AccountTableMapping() {
+    }
+}
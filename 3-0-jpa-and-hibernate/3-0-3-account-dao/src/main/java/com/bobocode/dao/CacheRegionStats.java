@@ -0,0 +1,19 @@
+package com.bobocode.dao;
+
+/**
+ * A point-in-time snapshot of a Hibernate cache region
+ *
+ * @param region           region name
+ * @param hits             number of lookups served from the region
+ * @param misses           number of lookups that went to the database
+ * @param puts             number of entries put into the region
+ * @param elementsInMemory number of entries currently in the region, or a negative value if the provider does not
+ *                         report it
+ */
+public record CacheRegionStats(String region, long hits, long misses, long puts, long elementsInMemory) {
+
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -2,20 +2,32 @@ package com.bobocode.dao;
 
 import com.bobocode.exception.AccountDaoException;
 import com.bobocode.model.Account;
+import com.bobocode.util.BulkLoadResult;
+import com.bobocode.util.BulkLoader;
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.MultiLoadResult;
+import com.bobocode.util.Page;
 import com.bobocode.util.TestDataGenerator;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
+import javax.sql.DataSource;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -136,6 +148,152 @@ class AccountDaoTest {
         assertThat(saved).isFalse();
     }
 
+    @Test
+    @Order(9)
+    @DisplayName("Find accounts page by page")
+    void testFindPage() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(5);
+        accounts.forEach(this::saveTestAccount);
+        Long cursor = accounts.get(0).getId() - 1;
+
+        Page<Account> firstPage = accountDao.findPage(cursor, 3);
+        Page<Account> secondPage = accountDao.findPage(firstPage.nextCursor(), 3);
+
+        assertThat(firstPage.content()).containsExactlyElementsOf(accounts.subList(0, 3));
+        assertThat(secondPage.content()).containsExactlyElementsOf(accounts.subList(3, 5));
+        assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Bulk load accounts")
+    void testBulkLoad() throws SQLException {
+        List<Account> accounts = TestDataGenerator.generateAccountList(25);
+        int storedAccounts = accountDao.findAll().size();
+        DataSource dataSource = JdbcUtil.createInMemoryH2DataSource(
+                "jdbc:h2:mem:bobocode_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false", "bobouser", "bobopass");
+
+        BulkLoadResult result = new BulkLoader<>(dataSource, AccountTableMapping.ACCOUNTS, 10).load(accounts);
+
+        assertThat(result.rows()).isEqualTo(25);
+        assertThat(result.method()).isEqualTo(BulkLoadResult.Method.BATCH_INSERT);
+        assertThat(accountDao.findAll()).hasSize(storedAccounts + 25);
+        assertThat(accountDao.findByEmail(accounts.get(24).getEmail()).getLastName())
+                .isEqualTo(accounts.get(24).getLastName());
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Find accounts by ids")
+    void testFindAllById() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(3);
+        accounts.forEach(this::saveTestAccount);
+        Long missingId = accounts.get(2).getId() + 1000;
+
+        MultiLoadResult<Account> result = accountDao.findAllById(
+                List.of(accounts.get(2).getId(), missingId, accounts.get(0).getId(), accounts.get(2).getId()));
+
+        assertThat(result.found()).containsExactly(accounts.get(2), accounts.get(0));
+        assertThat(result.missingIds()).containsExactly(missingId);
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Save all accounts")
+    void testSaveAll() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(120);
+
+        accountDao.saveAll(accounts);
+
+        assertThat(accounts).allMatch(account -> account.getId() != null && isSaved(account));
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Save all accounts sends inserts in JDBC batches when ids come from a sequence")
+    void testSaveAllInBatches() {
+        EntityManagerFactory batchEmf = Persistence.createEntityManagerFactory("SingleAccountEntityH2Batch", Map.of(
+                "hibernate.connection.url", "jdbc:h2:mem:account_batch_db;DB_CLOSE_DELAY=-1",
+                "hibernate.generate_statistics", "true"));
+        try {
+            AccountDao batchAccountDao = new AccountDaoImpl(batchEmf);
+            List<Account> accounts = TestDataGenerator.generateAccountList(120);
+            Statistics statistics = batchEmf.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            batchAccountDao.saveAll(accounts);
+
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+            assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+            assertThat(batchAccountDao.findAllById(accounts.stream().map(Account::getId).toList()).found())
+                    .containsExactlyElementsOf(accounts);
+        } finally {
+            batchEmf.close();
+        }
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Bulk insert, bulk update and scroll accounts with a stateless session")
+    void testStatelessBulkOperations() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(30);
+
+        accountDao.bulkInsert(accounts);
+        accounts.forEach(account -> account.setBalance(account.getBalance().add(BigDecimal.TEN)));
+        accountDao.bulkUpdate(accounts);
+        List<Account> scrolledAccounts = new ArrayList<>();
+        accountDao.scrollAll(scrolledAccounts::add);
+
+        assertThat(accounts).allMatch(account -> account.getId() != null && isBalanceUpdated(account));
+        assertThat(scrolledAccounts).hasSize(accountDao.findAll().size()).containsAll(accounts);
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Stream all accounts")
+    void testStreamAll() {
+        List<Account> accounts = accountDao.findAll();
+
+        try (Stream<Account> streamedAccounts = accountDao.streamAll()) {
+            assertThat(streamedAccounts.toList()).containsExactlyInAnyOrderElementsOf(accounts);
+        }
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("Repeated lookups by id and email are served from the caches, bulk writes evict stale lookups")
+    void testCachedLookups() {
+        EntityManagerFactory cachedEmf = Persistence.createEntityManagerFactory("SingleAccountEntityH2Cached",
+                Map.of("hibernate.connection.url", "jdbc:h2:mem:account_cache_db;DB_CLOSE_DELAY=-1"));
+        try {
+            AccountDao cachedAccountDao = new AccountDaoImpl(cachedEmf);
+            Account account = TestDataGenerator.generateAccount();
+            cachedAccountDao.save(account);
+
+            for (int i = 0; i < 3; i++) {
+                assertThat(cachedAccountDao.findById(account.getId())).isEqualTo(account);
+                assertThat(cachedAccountDao.findByEmail(account.getEmail())).isEqualTo(account);
+            }
+            account.setBalance(account.getBalance().add(BigDecimal.ONE));
+            cachedAccountDao.bulkUpdate(List.of(account));
+
+            assertThat(cachedAccountDao.findById(account.getId()).getBalance()).isEqualByComparingTo(account.getBalance());
+            Map<String, CacheRegionStats> statistics = cachedAccountDao.getCacheStatistics();
+            assertThat(statistics.get(Account.class.getName()).hits()).isGreaterThanOrEqualTo(3);
+            assertThat(statistics.get(AccountDaoImpl.FIND_BY_EMAIL_CACHE_REGION).hits()).isEqualTo(2);
+            assertThat(statistics.get(AccountDaoImpl.FIND_BY_EMAIL_CACHE_REGION).misses()).isEqualTo(1);
+
+            Account insertedAccount = TestDataGenerator.generateAccount();
+            assertThatThrownBy(() -> cachedAccountDao.findByEmail(insertedAccount.getEmail()))
+                    .isInstanceOf(AccountDaoException.class);
+            cachedAccountDao.bulkInsert(List.of(insertedAccount));
+
+            assertThat(cachedAccountDao.findByEmail(insertedAccount.getEmail())).isEqualTo(insertedAccount);
+        } finally {
+            cachedEmf.close();
+        }
+    }
+
     private boolean isBalanceUpdated(Account account) {
         EntityManager entityManager = emf.createEntityManager();
         boolean isUpdated = entityManager.unwrap(Session.class).doReturningWork(connection -> {
@@ -2,6 +2,9 @@ package com.bobocode.dao;
 
 import com.bobocode.model.Company;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 public interface CompanyDao {
     /**
      * Retrieves a {@link Company} with all its products by company id
@@ -10,4 +13,71 @@ public interface CompanyDao {
      * @return company with all its products
      */
     Company findByIdFetchProducts(Long id);
+
+    /**
+     * Retrieves a page of companies ordered by id with all their products. The ids of the page are selected first,
+     * then the companies of these ids are fetched with their products by a join, so the page is limited in the
+     * database instead of in memory after joining the products.
+     *
+     * @param page zero-based page number
+     * @param size maximum number of companies on the page
+     * @return companies of the page with all their products
+     */
+    List<Company> findAllFetchProducts(int page, int size);
+
+    /**
+     * Returns all companies ordered by id with all their products, e.g. for an export. Companies are read lazily in
+     * chunks, every chunk is selected after the last id of the previous one and fetched with its products in its own
+     * short read-only transaction, so neither memory nor a connection is held for the whole table.
+     * <p>
+     * Because the chunks are read in separate transactions, the stream is not a consistent snapshot of the table.
+     * Changes committed while it is consumed are visible in the chunks read after them: a company inserted with an
+     * id below the last one read is skipped, one deleted before its chunk is read is missing, and products of
+     * different chunks may be read at different points in time. Only the companies of one chunk, like those of one
+     * page of {@link CompanyDao#findAllFetchProducts(int, int)}, are read in a single transaction.
+     *
+     * @param chunkSize number of companies read at once
+     * @return stream of all companies with their products
+     */
+    Stream<Company> streamAllFetchProducts(int chunkSize);
+
+    /**
+     * Counts products of every company with a single {@code GROUP BY} query. Companies without products are
+     * returned with zero count.
+     *
+     * @return product count of every company ordered by company id
+     */
+    List<CompanyProductCount> countProductsPerCompany();
+
+    /**
+     * Returns the companies with the most products, companies with equal counts are ordered by id
+     *
+     * @param limit maximum number of returned companies
+     * @return product counts of the top companies in descending order
+     */
+    List<CompanyProductCount> findTopByProductCount(int limit);
+
+    /**
+     * Counts products of a company without loading them
+     *
+     * @param companyId company id
+     * @return number of products of the company, zero if there is no such company
+     */
+    long countProducts(Long companyId);
+
+    /**
+     * Checks whether a company exists without loading it
+     *
+     * @param companyId company id
+     * @return {@code true} if the company exists
+     */
+    boolean existsById(Long companyId);
+
+    /**
+     * Checks whether a company has at least one product. At most one product id is read.
+     *
+     * @param companyId company id
+     * @return {@code true} if the company has products
+     */
+    boolean hasProducts(Long companyId);
 }
@@ -3,10 +3,18 @@ package com.bobocode.dao;
 import com.bobocode.exception.CompanyDaoException;
 import com.bobocode.model.Company;
 import org.hibernate.Session;
+import org.hibernate.annotations.QueryHints;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Query;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class CompanyDaoImpl implements CompanyDao {
     private EntityManagerFactory entityManagerFactory;
@@ -18,19 +26,190 @@ public class CompanyDaoImpl implements CompanyDao {
             where c.id = :id
             """;
 
+    private static final String SELECT_PAGE_IDS_QUERY = """
+            select c.id
+            from Company c
+            order by c.id
+            """;
+
+    private static final String SELECT_CHUNK_IDS_QUERY = """
+            select c.id
+            from Company c
+            where c.id > :lastId
+            order by c.id
+            """;
+
+    private static final String SELECT_FETCH_PRODUCTS_QUERY = """
+            select distinct c
+            from Company c
+            left join fetch c.products
+            where c.id in :ids
+            order by c.id
+            """;
+
+    private static final String COUNT_PRODUCTS_PER_COMPANY_QUERY = """
+            select new com.bobocode.dao.CompanyProductCount(c.id, c.name, count(p))
+            from Company c
+            left join c.products p
+            group by c.id, c.name
+            order by c.id
+            """;
+
+    private static final String SELECT_TOP_BY_PRODUCT_COUNT_QUERY = """
+            select new com.bobocode.dao.CompanyProductCount(c.id, c.name, count(p))
+            from Company c
+            left join c.products p
+            group by c.id, c.name
+            order by count(p) desc, c.id
+            """;
+
+    private static final String COUNT_PRODUCTS_QUERY = """
+            select count(p)
+            from Product p
+            where p.company.id = :companyId
+            """;
+
+    private static final String SELECT_COMPANY_ID_QUERY = """
+            select c.id
+            from Company c
+            where c.id = :companyId
+            """;
+
+    private static final String SELECT_PRODUCT_ID_QUERY = """
+            select p.id
+            from Product p
+            where p.company.id = :companyId
+            """;
+
     public CompanyDaoImpl(EntityManagerFactory entityManagerFactory) {
         this.entityManagerFactory = entityManagerFactory;
     }
 
     @Override
     public Company findByIdFetchProducts(Long id) {
+        return performReadOnly(entityManager -> {
+            final Query query = entityManager.createQuery(SELECT_QUERY);
+            query.setParameter("id", id);
+            return (Company) query.getSingleResult();
+        });
+    }
+
+    @Override
+    public List<Company> findAllFetchProducts(int page, int size) {
+        if(page < 0 || size < 1) {
+            throw new IllegalArgumentException("Page must not be negative and size must be positive");
+        }
+        final int firstResult;
+        try {
+            firstResult = Math.multiplyExact(page, size);
+        } catch(ArithmeticException e) {
+            throw new IllegalArgumentException(String.format("Page %d of size %d is out of range", page, size), e);
+        }
+        return performReadOnly(entityManager -> {
+            final List<Long> ids = entityManager.createQuery(SELECT_PAGE_IDS_QUERY, Long.class)
+                    .setFirstResult(firstResult)
+                    .setMaxResults(size)
+                    .getResultList();
+            return fetchProducts(entityManager, ids);
+        });
+    }
+
+    @Override
+    public Stream<Company> streamAllFetchProducts(int chunkSize) {
+        if(chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        final Spliterator<List<Company>> chunks = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private long lastId = Long.MIN_VALUE;
+            private boolean exhausted;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super List<Company>> action) {
+                if(exhausted) {
+                    return false;
+                }
+                final List<Company> chunk = findChunkFetchProducts(lastId, chunkSize);
+                exhausted = chunk.size() < chunkSize;
+                if(chunk.isEmpty()) {
+                    return false;
+                }
+                lastId = chunk.get(chunk.size() - 1).getId();
+                action.accept(chunk);
+                return true;
+            }
+        };
+        return StreamSupport.stream(chunks, false).flatMap(List::stream);
+    }
+
+    @Override
+    public List<CompanyProductCount> countProductsPerCompany() {
+        return performReadOnly(entityManager ->
+                entityManager.createQuery(COUNT_PRODUCTS_PER_COMPANY_QUERY, CompanyProductCount.class).getResultList());
+    }
+
+    @Override
+    public List<CompanyProductCount> findTopByProductCount(int limit) {
+        if(limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return performReadOnly(entityManager ->
+                entityManager.createQuery(SELECT_TOP_BY_PRODUCT_COUNT_QUERY, CompanyProductCount.class)
+                        .setMaxResults(limit)
+                        .getResultList());
+    }
+
+    @Override
+    public long countProducts(Long companyId) {
+        return performReadOnly(entityManager -> entityManager.createQuery(COUNT_PRODUCTS_QUERY, Long.class)
+                .setParameter("companyId", companyId)
+                .getSingleResult());
+    }
+
+    @Override
+    public boolean existsById(Long companyId) {
+        return performReadOnly(entityManager -> exists(entityManager, SELECT_COMPANY_ID_QUERY, companyId));
+    }
+
+    @Override
+    public boolean hasProducts(Long companyId) {
+        return performReadOnly(entityManager -> exists(entityManager, SELECT_PRODUCT_ID_QUERY, companyId));
+    }
+
+    private static boolean exists(EntityManager entityManager, String idQuery, Long companyId) {
+        return !entityManager.createQuery(idQuery, Long.class)
+                .setParameter("companyId", companyId)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    private List<Company> findChunkFetchProducts(long lastId, int chunkSize) {
+        return performReadOnly(entityManager -> {
+            final List<Long> ids = entityManager.createQuery(SELECT_CHUNK_IDS_QUERY, Long.class)
+                    .setParameter("lastId", lastId)
+                    .setMaxResults(chunkSize)
+                    .getResultList();
+            return fetchProducts(entityManager, ids);
+        });
+    }
+
+    private static List<Company> fetchProducts(EntityManager entityManager, List<Long> ids) {
+        if(ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(SELECT_FETCH_PRODUCTS_QUERY, Company.class)
+                .setParameter("ids", ids)
+                .setHint(QueryHints.PASS_DISTINCT_THROUGH, false)
+                .getResultList();
+    }
+
+    private <T> T performReadOnly(Function<EntityManager, T> entityManagerFunction) {
         final EntityManager entityManager = entityManagerFactory.createEntityManager();
         entityManager.unwrap(Session.class).setDefaultReadOnly(true);
         entityManager.getTransaction().begin();
         try {
-            final Query query = entityManager.createQuery(SELECT_QUERY);
-            query.setParameter("id", id);
-            final Company result = (Company) query.getSingleResult();
+            final T result = entityManagerFunction.apply(entityManager);
             entityManager.getTransaction().commit();
             return result;
         } catch(Exception e) {
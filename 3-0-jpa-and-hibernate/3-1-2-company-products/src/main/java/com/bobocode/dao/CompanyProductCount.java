@@ -0,0 +1,11 @@
+package com.bobocode.dao;
+
+/**
+ * Number of products of a company, computed by the database without loading the products
+ *
+ * @param companyId    company id
+ * @param companyName  company name
+ * @param productCount number of products of the company
+ */
+public record CompanyProductCount(Long companyId, String companyName, long productCount) {
+}
@@ -5,6 +5,8 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -23,6 +25,7 @@ import java.util.List;
  * - configure mandatory column "name" for field {@link Company#name}
  * <p>
  * - configure one-to-many relationship as mapped on the child side
+ * - make {@link Company#products} extra lazy, so its size() is a count query that does not load the products
  * - override equals() and hashCode() considering entity id
  */
 @NoArgsConstructor
@@ -40,6 +43,7 @@ public class Company {
     private String name;
 
     @OneToMany(mappedBy = "company", fetch = FetchType.LAZY)
+    @LazyCollection(LazyCollectionOption.EXTRA)
     private List<Product> products = new ArrayList<>();
 
     private void setProducts(final List<Product> products) {
@@ -0,0 +1,189 @@
+package com.bobocode.dao;
+
+import com.bobocode.model.Company;
+import com.bobocode.model.Product;
+import com.bobocode.util.EntityManagerUtil;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CompanyDaoTest {
+    private static final int COMPANIES = 25;
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static CompanyDao companyDao;
+    private static Statistics statistics;
+    private static List<Company> companies;
+
+    @BeforeAll
+    static void setup() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("CompanyProducts",
+                Map.of("hibernate.connection.url", "jdbc:h2:mem:company_dao_db;DB_CLOSE_DELAY=-1",
+                        "hibernate.generate_statistics", "true"));
+        companyDao = new CompanyDaoImpl(entityManagerFactory);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        companies = new ArrayList<>();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < COMPANIES; i++) {
+            Company company = createRandomCompany();
+            for (int j = 0; j < i % 4; j++) {
+                Product product = createRandomProduct();
+                company.addProduct(product);
+                products.add(product);
+            }
+            companies.add(company);
+        }
+        new EntityManagerUtil(entityManagerFactory).performWithinTx(entityManager -> {
+            companies.forEach(entityManager::persist);
+            products.forEach(entityManager::persist);
+        });
+    }
+
+    @AfterAll
+    static void destroy() {
+        entityManagerFactory.close();
+    }
+
+    @BeforeEach
+    void clearStatistics() {
+        statistics.clear();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("findAllFetchProducts returns a page of companies with all their products using two queries")
+    void findAllFetchProducts() {
+        List<Company> page = companyDao.findAllFetchProducts(1, 10);
+
+        assertThat(page).containsExactlyElementsOf(companies.subList(10, 20));
+        assertThat(page).allSatisfy(company -> {
+            assertThat(Hibernate.isInitialized(company.getProducts())).isTrue();
+            assertThat(company.getProducts()).hasSameSizeAs(companies.get(companies.indexOf(company)).getProducts());
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("findAllFetchProducts returns the rest of the companies on the last page and nothing after it")
+    void findAllFetchProductsLastPage() {
+        assertThat(companyDao.findAllFetchProducts(2, 10)).containsExactlyElementsOf(companies.subList(20, COMPANIES));
+        assertThat(companyDao.findAllFetchProducts(3, 10)).isEmpty();
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("findAllFetchProducts rejects a negative page, a non-positive size and an overflowing offset")
+    void findAllFetchProductsInvalidPage() {
+        assertThatIllegalArgumentException().isThrownBy(() -> companyDao.findAllFetchProducts(-1, 10));
+        assertThatIllegalArgumentException().isThrownBy(() -> companyDao.findAllFetchProducts(0, 0));
+        assertThatIllegalArgumentException().isThrownBy(() -> companyDao.findAllFetchProducts(Integer.MAX_VALUE, 10));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("streamAllFetchProducts returns all companies with their products chunk by chunk")
+    void streamAllFetchProducts() {
+        List<Company> streamedCompanies;
+        try (Stream<Company> stream = companyDao.streamAllFetchProducts(10)) {
+            streamedCompanies = stream.toList();
+        }
+
+        assertThat(streamedCompanies).containsExactlyElementsOf(companies);
+        assertThat(streamedCompanies).allSatisfy(company ->
+                assertThat(Hibernate.isInitialized(company.getProducts())).isTrue());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("streamAllFetchProducts reads only the chunks that are consumed")
+    void streamAllFetchProductsIsLazy() {
+        try (Stream<Company> stream = companyDao.streamAllFetchProducts(10)) {
+            assertThat(stream.limit(5).toList()).containsExactlyElementsOf(companies.subList(0, 5));
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("countProductsPerCompany counts products of every company including companies without products")
+    void countProductsPerCompany() {
+        List<CompanyProductCount> counts = companyDao.countProductsPerCompany();
+
+        assertThat(counts).containsExactlyElementsOf(companies.stream().map(CompanyDaoTest::productCount).toList());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("findTopByProductCount returns companies with the most products ordered by count and id")
+    void findTopByProductCount() {
+        List<CompanyProductCount> topCompanies = companyDao.findTopByProductCount(3);
+
+        assertThat(topCompanies).containsExactly(productCount(companies.get(3)), productCount(companies.get(7)),
+                productCount(companies.get(11)));
+        assertThatIllegalArgumentException().isThrownBy(() -> companyDao.findTopByProductCount(0));
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("countProducts, existsById and hasProducts do not load entities")
+    void countAndExistenceChecks() {
+        Company companyWithProducts = companies.get(2);
+        Company companyWithoutProducts = companies.get(4);
+
+        assertThat(companyDao.countProducts(companyWithProducts.getId())).isEqualTo(2);
+        assertThat(companyDao.countProducts(companyWithoutProducts.getId())).isZero();
+        assertThat(companyDao.existsById(companyWithoutProducts.getId())).isTrue();
+        assertThat(companyDao.existsById(-1L)).isFalse();
+        assertThat(companyDao.hasProducts(companyWithProducts.getId())).isTrue();
+        assertThat(companyDao.hasProducts(companyWithoutProducts.getId())).isFalse();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Size of Company products is counted without initializing the collection")
+    void productsSizeDoesNotInitializeCollection() {
+        Company company = companies.get(3);
+
+        new EntityManagerUtil(entityManagerFactory).performWithinTx(entityManager -> {
+            Company managedCompany = entityManager.find(Company.class, company.getId());
+            assertThat(managedCompany.getProducts().size()).isEqualTo(3);
+            assertThat(Hibernate.isInitialized(managedCompany.getProducts())).isFalse();
+        });
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+    }
+
+    private static CompanyProductCount productCount(Company company) {
+        return new CompanyProductCount(company.getId(), company.getName(), company.getProducts().size());
+    }
+
+    private static Company createRandomCompany() {
+        Company company = new Company();
+        company.setName(RandomStringUtils.randomAlphabetic(20));
+        return company;
+    }
+
+    private static Product createRandomProduct() {
+        Product product = new Product();
+        product.setName(RandomStringUtils.randomAlphabetic(20));
+        return product;
+    }
+}
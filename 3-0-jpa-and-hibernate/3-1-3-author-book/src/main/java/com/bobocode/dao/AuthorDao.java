@@ -0,0 +1,21 @@
+package com.bobocode.dao;
+
+import com.bobocode.model.Author;
+
+import java.util.List;
+
+/**
+ * {@link AuthorDao} provides an API to read {@link Author} entities together with their books.
+ */
+public interface AuthorDao {
+    /**
+     * Returns a page of authors ordered by id with initialized {@link Author#getBooks()}. The ids of the page are
+     * selected first, then the authors of these ids are fetched with their books by a join, so the page is limited
+     * in the database and not in memory after joining the books.
+     *
+     * @param page zero-based page number
+     * @param size maximum number of authors on the page
+     * @return authors of the page with their books
+     */
+    List<Author> findAllWithBooks(int page, int size);
+}
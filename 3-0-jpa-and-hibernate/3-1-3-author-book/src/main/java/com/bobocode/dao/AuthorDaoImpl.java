@@ -0,0 +1,75 @@
+package com.bobocode.dao;
+
+import com.bobocode.exception.AuthorDaoException;
+import com.bobocode.model.Author;
+import org.hibernate.Session;
+import org.hibernate.annotations.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.function.Function;
+
+public class AuthorDaoImpl implements AuthorDao {
+    private EntityManagerFactory entityManagerFactory;
+
+    private static final String SELECT_PAGE_IDS_QUERY = """
+            select a.id
+            from Author a
+            order by a.id
+            """;
+
+    private static final String SELECT_WITH_BOOKS_QUERY = """
+            select distinct a
+            from Author a
+            left join fetch a.books
+            where a.id in :ids
+            order by a.id
+            """;
+
+    public AuthorDaoImpl(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public List<Author> findAllWithBooks(int page, int size) {
+        if(page < 0 || size < 1) {
+            throw new IllegalArgumentException("Page must not be negative and size must be positive");
+        }
+        final int firstResult;
+        try {
+            firstResult = Math.multiplyExact(page, size);
+        } catch(ArithmeticException e) {
+            throw new IllegalArgumentException(String.format("Page %d of size %d is out of range", page, size), e);
+        }
+        return performReadOnly(entityManager -> {
+            final List<Long> ids = entityManager.createQuery(SELECT_PAGE_IDS_QUERY, Long.class)
+                    .setFirstResult(firstResult)
+                    .setMaxResults(size)
+                    .getResultList();
+            if(ids.isEmpty()) {
+                return List.of();
+            }
+            return entityManager.createQuery(SELECT_WITH_BOOKS_QUERY, Author.class)
+                    .setParameter("ids", ids)
+                    .setHint(QueryHints.PASS_DISTINCT_THROUGH, false)
+                    .getResultList();
+        });
+    }
+
+    private <T> T performReadOnly(Function<EntityManager, T> entityManagerFunction) {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.unwrap(Session.class).setDefaultReadOnly(true);
+        entityManager.getTransaction().begin();
+        try {
+            final T result = entityManagerFunction.apply(entityManager);
+            entityManager.getTransaction().commit();
+            return result;
+        } catch(Exception e) {
+            entityManager.getTransaction().rollback();
+            throw new AuthorDaoException("Cannot perform read operation", e);
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.bobocode.dao;
+
+import com.bobocode.model.Book;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link BookDao} provides an API to look up {@link Book} entities by their natural id, the ISBN.
+ */
+public interface BookDao {
+    /**
+     * Returns a {@link Book} by its ISBN. The ISBN is resolved to the book id through the natural-id cache, and the
+     * book is read from the entity cache, so a repeated lookup does not reach the database.
+     *
+     * @param isbn book ISBN
+     * @return book instance, or {@code null} if there is no book with this ISBN
+     */
+    Book findByIsbn(String isbn);
+
+    /**
+     * Returns books by a set of ISBNs within one persistence context. Every ISBN is resolved through the natural-id
+     * cache, only uncached ISBNs are queried.
+     *
+     * @param isbns book ISBNs, duplicates are ignored
+     * @return found books in the order of the ISBNs, ISBNs without a book are skipped
+     */
+    List<Book> findAllByIsbn(Collection<String> isbns);
+}
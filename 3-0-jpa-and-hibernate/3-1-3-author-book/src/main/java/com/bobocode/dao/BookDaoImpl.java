@@ -0,0 +1,62 @@
+package com.bobocode.dao;
+
+import com.bobocode.exception.BookDaoException;
+import com.bobocode.model.Book;
+import org.hibernate.Session;
+import org.hibernate.SimpleNaturalIdLoadAccess;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+
+public class BookDaoImpl implements BookDao {
+    private EntityManagerFactory entityManagerFactory;
+
+    public BookDaoImpl(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public Book findByIsbn(String isbn) {
+        return performReadOnly(session -> session.bySimpleNaturalId(Book.class).load(isbn));
+    }
+
+    /**
+     * Hibernate 5 has no multi-load by natural id, so the ISBNs are resolved one by one with the same load access
+     */
+    @Override
+    public List<Book> findAllByIsbn(Collection<String> isbns) {
+        return performReadOnly(session -> {
+            final SimpleNaturalIdLoadAccess<Book> loadAccess = session.bySimpleNaturalId(Book.class);
+            final List<Book> books = new ArrayList<>(isbns.size());
+            for(String isbn : new LinkedHashSet<>(isbns)) {
+                final Book book = loadAccess.load(isbn);
+                if(book != null) {
+                    books.add(book);
+                }
+            }
+            return books;
+        });
+    }
+
+    private <T> T performReadOnly(Function<Session, T> sessionFunction) {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        final Session session = entityManager.unwrap(Session.class);
+        session.setDefaultReadOnly(true);
+        entityManager.getTransaction().begin();
+        try {
+            final T result = sessionFunction.apply(session);
+            entityManager.getTransaction().commit();
+            return result;
+        } catch(Exception e) {
+            entityManager.getTransaction().rollback();
+            throw new BookDaoException("Cannot perform read operation", e);
+        } finally {
+            entityManager.close();
+        }
+    }
+}
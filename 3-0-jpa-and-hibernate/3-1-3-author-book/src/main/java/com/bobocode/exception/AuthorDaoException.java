@@ -0,0 +1,7 @@
+package com.bobocode.exception;
+
+public class AuthorDaoException extends RuntimeException {
+    public AuthorDaoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bobocode.exception;
+
+public class BookDaoException extends RuntimeException {
+    public BookDaoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
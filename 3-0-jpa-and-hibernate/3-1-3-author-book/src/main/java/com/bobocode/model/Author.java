@@ -1,6 +1,7 @@
 package com.bobocode.model;
 
 import com.bobocode.util.ExerciseNotCompletedException;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -9,10 +10,14 @@ import javax.persistence.*;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
 
 /**
  * todo:
- * - implement hashCode() that return constant value 31
+ * - implement equals() and hashCode() based on {@link Author#uuid}, which is assigned when the author is created, so
+ * it is stable across persist and spreads authors over the buckets of {@link Book#getAuthors()}
+ * - assign {@link Author#uuid} in the public constructor only, the protected no-arg constructor is used by Hibernate,
+ * which reads the uuid from the row, so loading an author does not generate a random value
  * - make setter for field {@link Author#books} private
  * - initialize field {@link Author#books} as new {@link HashSet}
  * - implement a helper {@link Author#addBook(Book)} that establishes a relation on both sides
@@ -21,6 +26,7 @@ import java.util.Set;
  * - configure JPA entity
  * - specify table name: "author"
  * - configure auto generated identifier
+ * - configure mandatory unique non-updatable column "uuid" for field {@link Author#uuid}
  * - configure mandatory column "first_name" for field {@link Author#firstName}
  * - configure mandatory column "last_name" for field {@link Author#lastName}
  * <p>
@@ -29,8 +35,10 @@ import java.util.Set;
  * - configure link (join) table "author_book"
  * - configure foreign key column "book_id" references book table
  * - configure foreign key column "author_id" references author table
+ * - {@link Author#books} of several authors are loaded together in batches of
+ * {@code hibernate.default_batch_fetch_size}, see META-INF/persistence.xml
  */
-@NoArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 @Setter
 @Entity
@@ -40,6 +48,10 @@ public class Author {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
 
+    @Setter(AccessLevel.NONE)
+    @Column(name = "uuid", nullable = false, unique = true, updatable = false)
+    private UUID uuid;
+
     @Column(name = "first_name", nullable = false)
     private String firstName;
 
@@ -54,6 +66,12 @@ public class Author {
     )
     private Set<Book> books = new HashSet<>();
 
+    public Author(String firstName, String lastName) {
+        this.uuid = UUID.randomUUID();
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
     private void setBooks(final Set<Book> books) {
         this.books = books;
     }
@@ -80,11 +98,11 @@ public class Author {
 
         final Author author = (Author) o;
 
-        return Objects.equals(this.id, author.id);
+        return Objects.equals(this.uuid, author.getUuid());
     }
 
     @Override
     public int hashCode() {
-        return 31;
+        return uuid.hashCode();
     }
 }
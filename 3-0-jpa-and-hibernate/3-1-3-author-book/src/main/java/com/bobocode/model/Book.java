@@ -4,7 +4,10 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import javax.persistence.*;
 import java.util.HashSet;
@@ -23,6 +26,13 @@ import java.util.Set;
  * - configure mandatory unique column "isbn" for field {@link Book#isbn}, it is a natural key candidate
  * <p>
  * - configure many-to-many relation as mapped on the {@link Author} side
+ * - {@link Book#authors} of several books are loaded together in batches of
+ * {@code hibernate.default_batch_fetch_size}, like {@link Author#getBooks()}, so the strategy is chosen per
+ * persistence unit or entity manager factory. The mapping does not use {@code @Fetch(SUBSELECT)}: Hibernate cannot
+ * switch it off per unit, and it re-runs the whole query that loaded the books even when only a few of them are used
+ * <p>
+ * Books and their ISBN to id resolution are kept in the second-level cache, so natural-id lookups of hot books do not
+ * reach the database. The {@link Book#authors} collection is not cached.
  */
 @NoArgsConstructor
 @Getter
@@ -30,6 +40,9 @@ import java.util.Set;
 @EqualsAndHashCode(of = "isbn")
 @Entity
 @Table(name = "book")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class Book {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -8,8 +8,10 @@ import org.hibernate.Session;
 import org.junit.jupiter.api.*;
 
 import javax.persistence.*;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -292,6 +294,40 @@ class AuthorBookMappingTest {
         assertThat(foundBook).isEqualTo(book);
     }
 
+    @Test
+    @Order(19)
+    @DisplayName("Author identity is assigned on creation and is stable across persist")
+    void authorIdentityIsStableAcrossPersist() {
+        Author author = createRandomAuthor();
+        Author otherAuthor = createRandomAuthor();
+        int hashCodeBeforePersist = author.hashCode();
+        Set<Author> authors = new HashSet<>(List.of(author, otherAuthor));
+
+        emUtil.performWithinTx(entityManager -> entityManager.persist(author));
+
+        assertThat(author).isNotEqualTo(otherAuthor);
+        assertThat(author.hashCode()).isEqualTo(hashCodeBeforePersist);
+        assertThat(authors).contains(author).hasSize(2);
+        emUtil.performWithinTx(entityManager -> {
+            Author managedAuthor = entityManager.find(Author.class, author.getId());
+            assertThat(managedAuthor).isEqualTo(author);
+            assertThat(managedAuthor.hashCode()).isEqualTo(hashCodeBeforePersist);
+        });
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("Author no-arg constructor is protected and leaves the uuid to be read from the \"uuid\" column")
+    void authorNoArgConstructorDoesNotGenerateUuid() throws ReflectiveOperationException {
+        Constructor<Author> constructor = Author.class.getDeclaredConstructor();
+        Column uuidColumn = Author.class.getDeclaredField("uuid").getAnnotation(Column.class);
+
+        assertThat(Modifier.isProtected(constructor.getModifiers())).isTrue();
+        constructor.setAccessible(true);
+        assertThat(constructor.newInstance().getUuid()).isNull();
+        assertThat(uuidColumn.name()).isEqualTo("uuid");
+    }
+
     private Book createRandomBook() {
         Book book = new Book();
         book.setName(RandomStringUtils.randomAlphabetic(20));
@@ -300,9 +336,6 @@ class AuthorBookMappingTest {
     }
 
     private Author createRandomAuthor() {
-        Author author = new Author();
-        author.setFirstName(RandomStringUtils.randomAlphabetic(20));
-        author.setLastName(RandomStringUtils.randomAlphabetic(20));
-        return author;
+        return new Author(RandomStringUtils.randomAlphabetic(20), RandomStringUtils.randomAlphabetic(20));
     }
 }
@@ -0,0 +1,131 @@
+package com.bobocode.dao;
+
+import com.bobocode.model.Author;
+import com.bobocode.model.Book;
+import com.bobocode.util.EntityManagerUtil;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AuthorDaoTest {
+    private static final int AUTHORS = 30;
+    private static final int BOOKS_PER_AUTHOR = 3;
+    private static final int BATCH_FETCH_SIZE = 50;
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static EntityManagerUtil emUtil;
+    private static AuthorDao authorDao;
+    private static Statistics statistics;
+    private static List<Author> authors;
+
+    @BeforeAll
+    static void setup() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("BookAuthors",
+                Map.of("hibernate.connection.url", "jdbc:h2:mem:author_dao_db;DB_CLOSE_DELAY=-1",
+                        "hibernate.generate_statistics", "true",
+                        "hibernate.default_batch_fetch_size", String.valueOf(BATCH_FETCH_SIZE)));
+        emUtil = new EntityManagerUtil(entityManagerFactory);
+        authorDao = new AuthorDaoImpl(entityManagerFactory);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        authors = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            Author author = createRandomAuthor();
+            for (int j = 0; j < BOOKS_PER_AUTHOR; j++) {
+                author.addBook(createRandomBook());
+            }
+            authors.add(author);
+        }
+        emUtil.performWithinTx(entityManager -> authors.forEach(entityManager::persist));
+    }
+
+    @AfterAll
+    static void destroy() {
+        entityManagerFactory.close();
+    }
+
+    @BeforeEach
+    void clearStatistics() {
+        statistics.clear();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("findAllWithBooks returns a page of authors with initialized books using two queries")
+    void findAllWithBooks() {
+        List<Author> page = authorDao.findAllWithBooks(1, 10);
+
+        assertThat(page).containsExactlyElementsOf(authors.subList(10, 20));
+        assertThat(page).allSatisfy(author -> {
+            assertThat(Hibernate.isInitialized(author.getBooks())).isTrue();
+            assertThat(author.getBooks()).hasSize(BOOKS_PER_AUTHOR);
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("findAllWithBooks returns the rest of the authors on the last page and nothing after it")
+    void findAllWithBooksLastPage() {
+        assertThat(authorDao.findAllWithBooks(2, 20)).isEmpty();
+        assertThat(authorDao.findAllWithBooks(1, 20)).containsExactlyElementsOf(authors.subList(20, AUTHORS));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("findAllWithBooks rejects a negative page, a non-positive size and an overflowing offset")
+    void findAllWithBooksInvalidPage() {
+        assertThatIllegalArgumentException().isThrownBy(() -> authorDao.findAllWithBooks(-1, 10));
+        assertThatIllegalArgumentException().isThrownBy(() -> authorDao.findAllWithBooks(0, 0));
+        assertThatIllegalArgumentException().isThrownBy(() -> authorDao.findAllWithBooks(Integer.MAX_VALUE, 10));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Books of loaded authors are fetched in one batch")
+    void booksAreBatchFetched() {
+        emUtil.performWithinTx(entityManager -> {
+            List<Author> loadedAuthors = entityManager.createQuery("select a from Author a", Author.class)
+                    .getResultList();
+            loadedAuthors.forEach(author -> assertThat(author.getBooks()).hasSize(BOOKS_PER_AUTHOR));
+        });
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Authors of loaded books are fetched in batches of default_batch_fetch_size")
+    void authorsAreBatchFetched() {
+        emUtil.performWithinTx(entityManager -> {
+            List<Book> loadedBooks = entityManager.createQuery("select b from Book b", Book.class)
+                    .getResultList();
+            loadedBooks.forEach(book -> assertThat(book.getAuthors()).hasSize(1));
+        });
+
+        int books = AUTHORS * BOOKS_PER_AUTHOR;
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + (books + BATCH_FETCH_SIZE - 1) / BATCH_FETCH_SIZE);
+    }
+
+    private static Book createRandomBook() {
+        Book book = new Book();
+        book.setName(RandomStringUtils.randomAlphabetic(20));
+        book.setIsbn(RandomStringUtils.randomAlphabetic(30));
+        return book;
+    }
+
+    private static Author createRandomAuthor() {
+        return new Author(RandomStringUtils.randomAlphabetic(20), RandomStringUtils.randomAlphabetic(20));
+    }
+}
@@ -0,0 +1,103 @@
+package com.bobocode.dao;
+
+import com.bobocode.model.Book;
+import com.bobocode.util.EntityManagerUtil;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BookDaoTest {
+    private static EntityManagerFactory entityManagerFactory;
+    private static EntityManagerUtil emUtil;
+    private static BookDao bookDao;
+    private static Statistics statistics;
+
+    @BeforeAll
+    static void setup() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("BookAuthors",
+                Map.of("hibernate.connection.url", "jdbc:h2:mem:book_dao_db;DB_CLOSE_DELAY=-1",
+                        "hibernate.generate_statistics", "true"));
+        emUtil = new EntityManagerUtil(entityManagerFactory);
+        bookDao = new BookDaoImpl(entityManagerFactory);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void destroy() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("findByIsbn returns the book and does not query the database when it is cached")
+    void findByIsbn() {
+        Book book = createRandomBook();
+        emUtil.performWithinTx(entityManager -> entityManager.persist(book));
+
+        Book foundBook = bookDao.findByIsbn(book.getIsbn());
+        statistics.clear();
+        Book cachedBook = bookDao.findByIsbn(book.getIsbn());
+
+        assertThat(foundBook).isEqualTo(book);
+        assertThat(cachedBook).isEqualTo(book);
+        assertThat(cachedBook.getName()).isEqualTo(book.getName());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("findByIsbn returns null when there is no book with the ISBN")
+    void findByUnknownIsbn() {
+        assertThat(bookDao.findByIsbn(RandomStringUtils.randomAlphabetic(30))).isNull();
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("findAllByIsbn returns found books in the order of the ISBNs")
+    void findAllByIsbn() {
+        List<Book> books = Stream.generate(BookDaoTest::createRandomBook).limit(3).collect(Collectors.toList());
+        emUtil.performWithinTx(entityManager -> books.forEach(entityManager::persist));
+        String unknownIsbn = RandomStringUtils.randomAlphabetic(30);
+
+        List<Book> foundBooks = bookDao.findAllByIsbn(List.of(books.get(2).getIsbn(), unknownIsbn,
+                books.get(0).getIsbn(), books.get(2).getIsbn(), books.get(1).getIsbn()));
+        statistics.clear();
+        List<Book> cachedBooks = bookDao.findAllByIsbn(books.stream().map(Book::getIsbn).toList());
+
+        assertThat(foundBooks).containsExactly(books.get(2), books.get(0), books.get(1));
+        assertThat(cachedBooks).containsExactlyElementsOf(books);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("findByIsbn does not return a removed book")
+    void findRemovedBook() {
+        Book book = createRandomBook();
+        emUtil.performWithinTx(entityManager -> entityManager.persist(book));
+        bookDao.findByIsbn(book.getIsbn());
+
+        emUtil.performWithinTx(entityManager -> entityManager.remove(entityManager.merge(book)));
+
+        assertThat(bookDao.findByIsbn(book.getIsbn())).isNull();
+    }
+
+    private static Book createRandomBook() {
+        Book book = new Book();
+        book.setName(RandomStringUtils.randomAlphabetic(20));
+        book.setIsbn(RandomStringUtils.randomAlphabetic(30));
+        return book;
+    }
+}
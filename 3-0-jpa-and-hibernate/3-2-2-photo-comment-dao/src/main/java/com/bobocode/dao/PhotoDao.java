@@ -3,6 +3,7 @@ package com.bobocode.dao;
 import com.bobocode.model.Photo;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * {@link PhotoDao} defines and API of Data-Access Object for entity {@link Photo}
@@ -31,6 +32,14 @@ public interface PhotoDao {
      */
     List<Photo> findAll();
 
+    /**
+     * Returns all stored photos as a stream that reads them with a database cursor. The stream holds a connection and
+     * a transaction until it is closed, so it should be used in a try-with-resources block.
+     *
+     * @return stream of stored photos that has to be closed
+     */
+    Stream<Photo> streamAll();
+
     /**
      * Removes a photo from the database
      *
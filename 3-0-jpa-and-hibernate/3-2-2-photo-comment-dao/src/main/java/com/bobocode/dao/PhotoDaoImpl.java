@@ -2,6 +2,7 @@ package com.bobocode.dao;
 
 import com.bobocode.model.Photo;
 import com.bobocode.model.PhotoComment;
+import com.bobocode.util.EntityStreams;
 import com.bobocode.util.ExerciseNotCompletedException;
 
 import javax.persistence.EntityManager;
@@ -9,11 +10,15 @@ import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Please note that you should not use auto-commit mode for your implementation.
  */
 public class PhotoDaoImpl implements PhotoDao {
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
     private final EntityManagerFactory entityManagerFactory;
 
     public PhotoDaoImpl(EntityManagerFactory entityManagerFactory) {
@@ -41,6 +46,13 @@ public class PhotoDaoImpl implements PhotoDao {
         );
     }
 
+    @Override
+    public Stream<Photo> streamAll() {
+        return EntityStreams.stream(entityManagerFactory,
+                entityManager -> entityManager.createQuery("select p from Photo p", Photo.class),
+                STREAM_FETCH_SIZE, STREAM_CLEAR_INTERVAL);
+    }
+
     @Override
     public void remove(Photo photo) {
         performInTransaction(
@@ -1,6 +1,7 @@
 package com.bobocode;
 
 import static com.bobocode.util.PhotoTestDataGenerator.createListOfRandomPhotos;
+import static com.bobocode.util.PhotoTestDataGenerator.createRandomPhotoComment;
 import static com.bobocode.util.PhotoTestDataGenerator.createRandomPhoto;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
@@ -10,6 +11,7 @@ import com.bobocode.dao.PhotoDaoImpl;
 import com.bobocode.model.Photo;
 import com.bobocode.util.EntityManagerUtil;
 import java.util.List;
+import java.util.stream.Stream;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
 import org.junit.jupiter.api.AfterEach;
@@ -75,6 +77,21 @@ class PhotoDaoTest {
         assertThat(foundPhotos).containsExactlyInAnyOrderElementsOf(listOfRandomPhotos);
     }
 
+    @Test
+    @Order(3)
+    @DisplayName("Stream all photos")
+    void streamAllPhotos() {
+        List<Photo> listOfRandomPhotos = createListOfRandomPhotos(1200);
+        listOfRandomPhotos.forEach(photo -> photo.addComment(createRandomPhotoComment()));
+        emUtil.performWithinTx(entityManager -> listOfRandomPhotos.forEach(entityManager::persist));
+
+        try (Stream<Photo> photos = photoDao.streamAll()) {
+            List<Photo> photosWithComment = photos.filter(photo -> photo.getComments().size() == 1).toList();
+
+            assertThat(photosWithComment).containsExactlyInAnyOrderElementsOf(listOfRandomPhotos);
+        }
+    }
+
     @Test
     @Order(4)
     @DisplayName("Remove a photo")
@@ -0,0 +1,124 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.AsyncProductDao;
+import com.bobocode.dao.ProductDao;
+import com.bobocode.dao.ProductDaoImpl;
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.LatencyHistogram;
+import com.bobocode.util.PoolConfig;
+import com.bobocode.util.PooledDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Load test of {@link ProductDao#findOne(Long)} with many concurrent clients over a small connection pool. Every
+ * client performs its requests one after another. The blocking run gives every client its own platform thread that
+ * calls {@link ProductDaoImpl} directly; the async run chains the requests of every client on
+ * {@link AsyncProductDao} futures, so no client holds a thread while it waits.
+ * <p>
+ * It is a plain main class rather than a JMH benchmark, because it measures the latency distribution of a fixed
+ * amount of work under contention. Arguments: clients, requests per client, database ({@code h2} or
+ * {@code postgres}), e.g.
+ * <pre>
+ * mvn -B -f benchmarks/jdbc-benchmarks/pom.xml exec:exec \
+ *     -Dbenchmark.mainClass=com.bobocode.benchmark.AsyncProductDaoLoadTest -Djmh.args="1000 50 h2" -Djmh.result=
+ * </pre>
+ */
+public class AsyncProductDaoLoadTest {
+    private static final int PRODUCTS = 10_000;
+    private static final int POOL_SIZE = 10;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int requestsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        String database = args.length > 2 ? args[2] : BenchmarkDatabase.H2;
+
+        DataSource dataSource = BenchmarkDatabase.createDataSource(database);
+        BenchmarkDatabase.createProductsTable(dataSource);
+        BenchmarkDatabase.fillProducts(dataSource, database, PRODUCTS);
+        PoolConfig poolConfig = PoolConfig.builder()
+                .minIdle(POOL_SIZE)
+                .maxPoolSize(POOL_SIZE)
+                .acquireTimeout(Duration.ofMinutes(10))
+                .build();
+        try (PooledDataSource pooledDataSource = JdbcUtil.createPooledDataSource(dataSource, poolConfig);
+             AsyncProductDao asyncProductDao = AsyncProductDao.forPool(new ProductDaoImpl(pooledDataSource), pooledDataSource)) {
+            ProductDao productDao = new ProductDaoImpl(pooledDataSource);
+            long firstId = productDao.findPage(null, 1).content().get(0).getId();
+
+            runBlocking(productDao, firstId, clients / 10, requestsPerClient);
+            runAsync(asyncProductDao, firstId, clients / 10, requestsPerClient);
+
+            System.out.printf("%d clients x %d requests, pool of %d connections, %s%n",
+                    clients, requestsPerClient, POOL_SIZE, database);
+            System.out.println(runBlocking(productDao, firstId, clients, requestsPerClient));
+            System.out.println(runAsync(asyncProductDao, firstId, clients, requestsPerClient));
+        }
+    }
+
+    private static Result runBlocking(ProductDao productDao, long firstId, int clients, int requestsPerClient)
+            throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService clientThreads = Executors.newFixedThreadPool(clients);
+        long startNanos = System.nanoTime();
+        for (int client = 0; client < clients; client++) {
+            clientThreads.execute(() -> {
+                for (int request = 0; request < requestsPerClient; request++) {
+                    long requestStartNanos = System.nanoTime();
+                    productDao.findOne(randomId(firstId));
+                    histogram.record(System.nanoTime() - requestStartNanos);
+                }
+            });
+        }
+        clientThreads.shutdown();
+        clientThreads.awaitTermination(1, TimeUnit.HOURS);
+        return new Result("blocking ProductDaoImpl", Duration.ofNanos(System.nanoTime() - startNanos), histogram.snapshot());
+    }
+
+    private static Result runAsync(AsyncProductDao asyncProductDao, long firstId, int clients, int requestsPerClient) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long startNanos = System.nanoTime();
+        List<CompletableFuture<Void>> clientFutures = IntStream.range(0, clients)
+                .mapToObj(client -> runAsyncClient(asyncProductDao, firstId, requestsPerClient, histogram))
+                .toList();
+        CompletableFuture.allOf(clientFutures.toArray(CompletableFuture[]::new)).join();
+        return new Result("AsyncProductDao", Duration.ofNanos(System.nanoTime() - startNanos), histogram.snapshot());
+    }
+
+    private static CompletableFuture<Void> runAsyncClient(AsyncProductDao asyncProductDao, long firstId,
+                                                          int remainingRequests, LatencyHistogram histogram) {
+        if (remainingRequests == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long requestStartNanos = System.nanoTime();
+        return asyncProductDao.findOne(randomId(firstId))
+                .thenCompose(product -> {
+                    histogram.record(System.nanoTime() - requestStartNanos);
+                    return runAsyncClient(asyncProductDao, firstId, remainingRequests - 1, histogram);
+                });
+    }
+
+    private static long randomId(long firstId) {
+        return firstId + ThreadLocalRandom.current().nextInt(PRODUCTS);
+    }
+
+    private record Result(String name, Duration elapsed, LatencyHistogram.Snapshot latency) {
+        @Override
+        public String toString() {
+            return String.format("%-24s %10.0f ops/s   mean %6.2f ms   p99 %7.2f ms   max %7.2f ms",
+                    name,
+                    latency.count() * 1_000_000_000.0 / elapsed.toNanos(),
+                    latency.meanNanos() / 1e6,
+                    latency.percentileNanos(99) / 1e6,
+                    latency.maxNanos() / 1e6);
+        }
+    }
+}
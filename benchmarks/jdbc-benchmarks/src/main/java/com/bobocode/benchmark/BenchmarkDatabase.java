@@ -0,0 +1,76 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.util.JdbcUtil;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * {@link BenchmarkDatabase} creates data sources and the products schema used by JDBC benchmarks. The "postgres"
+ * database is a local instance reachable via {@link JdbcUtil#createDefaultPostgresDataSource()}.
+ */
+public class BenchmarkDatabase {
+    public static final String H2 = "h2";
+    public static final String POSTGRES = "postgres";
+
+    private static final String CREATE_PRODUCTS_TABLE = """
+            CREATE TABLE IF NOT EXISTS products
+            (
+                id              SERIAL       NOT NULL,
+                name            VARCHAR(255) NOT NULL,
+                producer        VARCHAR(255) NOT NULL,
+                price           DECIMAL(19, 4),
+                expiration_date TIMESTAMP    NOT NULL,
+                creation_time   TIMESTAMP    NOT NULL DEFAULT now(),
+
+                CONSTRAINT products_pk PRIMARY KEY (id)
+            );
+            """;
+
+    private static final String H2_FILL_PRODUCTS = """
+            INSERT INTO products (name, producer, price, expiration_date)
+            SELECT 'Product ' || x, 'Producer ' || MOD(x, 100), MOD(x, 10000) / 100.0,
+                   DATEADD('DAY', MOD(x, 365), DATE '2030-01-01')
+            FROM SYSTEM_RANGE(1, %d)
+            """;
+
+    private static final String POSTGRES_FILL_PRODUCTS = """
+            INSERT INTO products (name, producer, price, expiration_date)
+            SELECT 'Product ' || x, 'Producer ' || x % 100, x % 10000 / 100.0, DATE '2030-01-01' + x % 365
+            FROM generate_series(1, %d) AS x
+            """;
+
+    public static DataSource createDataSource(String database) {
+        return switch (database) {
+            case H2 -> JdbcUtil.createDefaultInMemoryH2DataSource();
+            case POSTGRES -> JdbcUtil.createDefaultPostgresDataSource();
+            default -> throw new IllegalArgumentException("Unknown benchmark database: " + database);
+        };
+    }
+
+    public static void createProductsTable(DataSource dataSource) throws SQLException {
+        execute(dataSource, CREATE_PRODUCTS_TABLE);
+        truncateProducts(dataSource);
+    }
+
+    /**
+     * Replaces the content of the products table with generated rows using a single server-side statement
+     */
+    public static void fillProducts(DataSource dataSource, String database, int rows) throws SQLException {
+        truncateProducts(dataSource);
+        String fillSql = database.equals(POSTGRES) ? POSTGRES_FILL_PRODUCTS : H2_FILL_PRODUCTS;
+        execute(dataSource, String.format(fillSql, rows));
+    }
+
+    public static void truncateProducts(DataSource dataSource) throws SQLException {
+        execute(dataSource, "TRUNCATE TABLE products");
+    }
+
+    public static void execute(DataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Generates deterministic, not yet stored {@link Product} instances for benchmarks
+ */
+public class BenchmarkProducts {
+
+    public static List<Product> generate(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(BenchmarkProducts::generateProduct)
+                .toList();
+    }
+
+    public static Product generateProduct(int index) {
+        return Product.builder()
+                .name("Product " + index)
+                .producer("Producer " + index % 100)
+                .price(BigDecimal.valueOf(index % 10_000, 2))
+                .expirationDate(LocalDate.of(2030, 1, 1).plusDays(index % 365))
+                .build();
+    }
+}
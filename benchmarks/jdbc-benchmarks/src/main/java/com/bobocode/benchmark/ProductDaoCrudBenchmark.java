@@ -0,0 +1,93 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.ProductDao;
+import com.bobocode.dao.ProductDaoImpl;
+import com.bobocode.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the single-product {@link ProductDaoImpl} operations and {@link ProductDao#findAll()} on a table of
+ * {@code products} stored products. The score is reported in operations per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductDaoCrudBenchmark {
+
+    @Param({BenchmarkDatabase.H2, BenchmarkDatabase.POSTGRES})
+    private String database;
+
+    @Param({"1000", "100000"})
+    private int products;
+
+    private ProductDao productDao;
+    private List<Product> storedProducts;
+    private int nextProductIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        DataSource dataSource = BenchmarkDatabase.createDataSource(database);
+        BenchmarkDatabase.createProductsTable(dataSource);
+        BenchmarkDatabase.fillProducts(dataSource, database, products);
+        productDao = new ProductDaoImpl(dataSource);
+        storedProducts = productDao.findAll();
+        nextProductIndex = products;
+    }
+
+    @Benchmark
+    public void save() {
+        productDao.save(BenchmarkProducts.generateProduct(nextProductIndex++));
+    }
+
+    @Benchmark
+    public Product findOne() {
+        return productDao.findOne(randomProduct().getId());
+    }
+
+    @Benchmark
+    public List<Product> findAll() {
+        return productDao.findAll();
+    }
+
+    @Benchmark
+    public void update() {
+        Product product = randomProduct();
+        product.setPrice(BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(10_000), 2));
+        productDao.update(product);
+    }
+
+    /**
+     * Removing needs a stored product for every invocation, so the score includes saving it
+     */
+    @Benchmark
+    public void saveAndRemove() {
+        Product product = BenchmarkProducts.generateProduct(nextProductIndex++);
+        productDao.save(product);
+        productDao.remove(product);
+    }
+
+    private Product randomProduct() {
+        return storedProducts.get(ThreadLocalRandom.current().nextInt(storedProducts.size()));
+    }
+}
@@ -0,0 +1,68 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.ProductDao;
+import com.bobocode.dao.ProductDaoImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ProductDao#save} called row by row with {@link ProductDao#saveAll}. The score is reported
+ * in inserted rows per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductDaoSaveBenchmark {
+    private static final int ROWS_PER_INVOCATION = 1_000;
+
+    @Param({BenchmarkDatabase.H2, BenchmarkDatabase.POSTGRES})
+    private String database;
+
+    @Param({"100", "1000"})
+    private int batchSize;
+
+    private DataSource dataSource;
+    private ProductDao productDao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        dataSource = BenchmarkDatabase.createDataSource(database);
+        BenchmarkDatabase.createProductsTable(dataSource);
+        productDao = new ProductDaoImpl(dataSource, batchSize);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        BenchmarkDatabase.truncateProducts(dataSource);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_INVOCATION)
+    public void saveOneByOne() {
+        BenchmarkProducts.generate(ROWS_PER_INVOCATION).forEach(productDao::save);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_INVOCATION)
+    public void saveAll() {
+        productDao.saveAll(BenchmarkProducts.generate(ROWS_PER_INVOCATION));
+    }
+}
@@ -0,0 +1,80 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.ProductDao;
+import com.bobocode.dao.ProductDaoImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading whole products with {@link ProductDao#findAll()} against reading two columns with
+ * {@link ProductDao#findAll(Class)} from a wide products table. The table gets an extra description column of
+ * descriptionLength characters (filled by its default), which {@code SELECT *} transfers and the projection does
+ * not. The score is reported in rows per second. Run with {@code -prof gc} to compare the allocation per row.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductProjectionBenchmark {
+    private static final int ROWS = 100_000;
+
+    @Param({BenchmarkDatabase.H2, BenchmarkDatabase.POSTGRES})
+    private String database;
+
+    @Param({"0", "1000"})
+    private int descriptionLength;
+
+    private DataSource dataSource;
+    private ProductDao productDao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        dataSource = BenchmarkDatabase.createDataSource(database);
+        BenchmarkDatabase.createProductsTable(dataSource);
+        BenchmarkDatabase.execute(dataSource, String.format(
+                "ALTER TABLE products ADD COLUMN IF NOT EXISTS description VARCHAR(1000) DEFAULT '%s'",
+                "x".repeat(descriptionLength)));
+        BenchmarkDatabase.fillProducts(dataSource, database, ROWS);
+        productDao = new ProductDaoImpl(dataSource);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.execute(dataSource, "ALTER TABLE products DROP COLUMN IF EXISTS description");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<?> findAllProducts() {
+        return productDao.findAll();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<?> findAllProductPrices() {
+        return productDao.findAll(ProductPrice.class);
+    }
+
+    public record ProductPrice(Long id, BigDecimal price) {
+    }
+}
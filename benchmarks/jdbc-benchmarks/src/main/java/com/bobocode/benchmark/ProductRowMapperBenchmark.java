@@ -0,0 +1,87 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.ProductRowMapper;
+import com.bobocode.model.Product;
+import com.bobocode.util.RowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares mapping of the whole products table by column labels with {@link java.sql.Date}/{@link java.sql.Timestamp}
+ * conversion (the original ProductDaoImpl code) against {@link ProductRowMapper}. Both benchmarks run the same
+ * query, so the difference of scores is the mapping cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductRowMapperBenchmark {
+    private static final RowMapper<Product> PRODUCT_ROW_MAPPER = new ProductRowMapper();
+
+    @Param({"1000000"})
+    private int rows;
+
+    private Connection connection;
+    private PreparedStatement selectAllStatement;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        DataSource dataSource = BenchmarkDatabase.createDataSource(BenchmarkDatabase.H2);
+        BenchmarkDatabase.createProductsTable(dataSource);
+        BenchmarkDatabase.fillProducts(dataSource, BenchmarkDatabase.H2, rows);
+        connection = dataSource.getConnection();
+        selectAllStatement = connection.prepareStatement("SELECT * FROM products");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void mapByColumnLabel(Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = selectAllStatement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(new Product(
+                        resultSet.getLong("id"),
+                        resultSet.getString("name"),
+                        resultSet.getString("producer"),
+                        resultSet.getBigDecimal("price"),
+                        resultSet.getDate("expiration_date").toLocalDate(),
+                        resultSet.getTimestamp("creation_time").toLocalDateTime()
+                ));
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapWithRowMapper(Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = selectAllStatement.executeQuery()) {
+            RowMapper<Product> rowMapper = PRODUCT_ROW_MAPPER.bind(resultSet.getMetaData());
+            while (resultSet.next()) {
+                blackhole.consume(rowMapper.mapRow(resultSet));
+            }
+        }
+    }
+}
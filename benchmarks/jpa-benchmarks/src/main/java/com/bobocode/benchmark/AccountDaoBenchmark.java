@@ -0,0 +1,127 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.AccountDao;
+import com.bobocode.dao.AccountDaoImpl;
+import com.bobocode.model.Account;
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.PooledDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the {@link AccountDaoImpl} operations on a table of {@code accounts} stored accounts. The
+ * {@code SingleAccountEntityH2Cached} persistence unit serves repeated lookups by id and email from the second-level
+ * and query caches. The score is reported in operations per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountDaoBenchmark {
+
+    @Param({"1000", "10000"})
+    private int accounts;
+
+    @Param({"SingleAccountEntityH2", "SingleAccountEntityH2Cached"})
+    private String persistenceUnit;
+
+    private PooledDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private AccountDao accountDao;
+    private List<Account> storedAccounts;
+    private int nextAccountIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = JdbcUtil.createDefaultPooledInMemoryH2DataSource();
+        entityManagerFactory = BenchmarkPersistence.createEntityManagerFactory(persistenceUnit, dataSource);
+        accountDao = new AccountDaoImpl(entityManagerFactory);
+        storedAccounts = BenchmarkAccounts.generate(accounts);
+        BenchmarkPersistence.persistAll(entityManagerFactory, storedAccounts);
+        nextAccountIndex = accounts;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Account findById() {
+        return accountDao.findById(randomAccount().getId());
+    }
+
+    @Benchmark
+    public Account findByEmail() {
+        return accountDao.findByEmail(BenchmarkAccounts.email(ThreadLocalRandom.current().nextInt(accounts)));
+    }
+
+    @Benchmark
+    public List<Account> findAll() {
+        return accountDao.findAll();
+    }
+
+    /**
+     * Reads the same rows as {@link AccountDaoBenchmark#findAll()} through a stateless session, run with
+     * {@code -prof gc} to compare the allocation
+     */
+    @Benchmark
+    public void scrollAll(Blackhole blackhole) {
+        accountDao.scrollAll(blackhole::consume);
+    }
+
+    @Benchmark
+    public void streamAll(Blackhole blackhole) {
+        try (Stream<Account> accountStream = accountDao.streamAll()) {
+            accountStream.forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void save() {
+        accountDao.save(BenchmarkAccounts.generateAccount(nextAccountIndex++));
+    }
+
+    @Benchmark
+    public void update() {
+        Account account = randomAccount();
+        account.setBalance(BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(200_000), 2));
+        accountDao.update(account);
+    }
+
+    /**
+     * Removing needs a stored account for every invocation, so the score includes saving it
+     */
+    @Benchmark
+    public void saveAndRemove() {
+        Account account = BenchmarkAccounts.generateAccount(nextAccountIndex++);
+        accountDao.save(account);
+        accountDao.remove(account);
+    }
+
+    private Account randomAccount() {
+        return storedAccounts.get(ThreadLocalRandom.current().nextInt(accounts));
+    }
+}
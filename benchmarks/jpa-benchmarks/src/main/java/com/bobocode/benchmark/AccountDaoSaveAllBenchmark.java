@@ -0,0 +1,81 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.AccountDao;
+import com.bobocode.dao.AccountDaoImpl;
+import com.bobocode.model.Account;
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.PooledDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link AccountDao#saveAll(List)} of 100k accounts in the {@code SingleAccountEntityH2} persistence unit,
+ * where the identity id disables insert batching, with the {@code SingleAccountEntityH2Batch} unit that generates ids
+ * with a pooled sequence and sends inserts in JDBC batches. The score is reported in inserted accounts per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountDaoSaveAllBenchmark {
+    private static final int ACCOUNTS = 100_000;
+
+    @Param({"SingleAccountEntityH2", "SingleAccountEntityH2Batch"})
+    private String persistenceUnit;
+
+    private PooledDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private AccountDao accountDao;
+    private List<Account> accounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = JdbcUtil.createDefaultPooledInMemoryH2DataSource();
+        entityManagerFactory = BenchmarkPersistence.createEntityManagerFactory(persistenceUnit, dataSource);
+        accountDao = new AccountDaoImpl(entityManagerFactory);
+    }
+
+    /**
+     * Saving 100k accounts takes long enough for the per-invocation setup not to distort the score
+     */
+    @Setup(Level.Invocation)
+    public void prepareAccounts() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE account");
+        }
+        accounts = BenchmarkAccounts.generate(ACCOUNTS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCOUNTS)
+    public void saveAll() {
+        accountDao.saveAll(accounts);
+    }
+}
@@ -0,0 +1,62 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.model.Author;
+import com.bobocode.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building an in-memory many-to-many graph of {@code authors} new authors, each of them added to
+ * {@value #BOOKS_PER_AUTHOR} of {@code books} books with {@link Author#addBook(Book)}. Fewer books mean larger
+ * {@link Book#getAuthors()} sets, which shows how {@link Author#hashCode()} spreads the authors over the set buckets.
+ * Authors get distinct ids, like authors loaded from the database, so that identity by id tells them apart too.
+ * The score is reported in milliseconds per graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorBookGraphBenchmark {
+    private static final int BOOKS_PER_AUTHOR = 5;
+
+    @Param({"10000"})
+    private int authors;
+
+    @Param({"10", "1000"})
+    private int books;
+
+    @Benchmark
+    public List<Author> buildGraph() {
+        List<Book> storedBooks = new ArrayList<>(books);
+        for (int bookIndex = 0; bookIndex < books; bookIndex++) {
+            Book book = new Book();
+            book.setName("Book " + bookIndex);
+            book.setIsbn(String.format("978-1-%09d", bookIndex));
+            storedBooks.add(book);
+        }
+        List<Author> graph = new ArrayList<>(authors);
+        for (int authorIndex = 0; authorIndex < authors; authorIndex++) {
+            Author author = new Author("First name " + authorIndex, "Last name " + authorIndex);
+            author.setId((long) authorIndex);
+            for (int i = 0; i < BOOKS_PER_AUTHOR; i++) {
+                author.addBook(storedBooks.get((authorIndex + i * books / BOOKS_PER_AUTHOR) % books));
+            }
+            graph.add(author);
+        }
+        return graph;
+    }
+}
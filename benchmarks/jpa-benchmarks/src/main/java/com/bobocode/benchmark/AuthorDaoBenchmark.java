@@ -0,0 +1,105 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.AuthorDao;
+import com.bobocode.dao.AuthorDaoImpl;
+import com.bobocode.model.Author;
+import com.bobocode.model.Book;
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.PooledDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading a page of {@value #PAGE_SIZE} authors with their books out of {@value #AUTHORS} authors with
+ * {@value #BOOKS_PER_AUTHOR} books each. {@link AuthorDaoImpl#findAllWithBooks(int, int)} fetches the books by a join,
+ * {@code findPageTouchBooks} loads them lazily, in batches of {@code batchFetchSize} authors. A batch fetch size of 1
+ * is the N+1 baseline. The score is reported in pages per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorDaoBenchmark {
+    private static final int AUTHORS = 1000;
+    private static final int BOOKS_PER_AUTHOR = 5;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1", "50"})
+    private int batchFetchSize;
+
+    private PooledDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private AuthorDao authorDao;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = JdbcUtil.createDefaultPooledInMemoryH2DataSource();
+        entityManagerFactory = BenchmarkPersistence.createEntityManagerFactory("BookAuthors", dataSource,
+                Map.of(AvailableSettings.DEFAULT_BATCH_FETCH_SIZE, String.valueOf(batchFetchSize)));
+        authorDao = new AuthorDaoImpl(entityManagerFactory);
+        List<Author> authors = new ArrayList<>(AUTHORS);
+        for (int authorIndex = 0; authorIndex < AUTHORS; authorIndex++) {
+            Author author = new Author("First name " + authorIndex, "Last name " + authorIndex);
+            for (int bookIndex = 0; bookIndex < BOOKS_PER_AUTHOR; bookIndex++) {
+                Book book = new Book();
+                book.setName("Book " + bookIndex);
+                book.setIsbn(String.format("978-2-%06d-%d", authorIndex, bookIndex));
+                author.addBook(book);
+            }
+            authors.add(author);
+        }
+        BenchmarkPersistence.persistAll(entityManagerFactory, authors);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public List<Author> findAllWithBooks() {
+        return authorDao.findAllWithBooks(randomPage(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Author> findPageTouchBooks() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<Author> authors = entityManager.createQuery("select a from Author a order by a.id", Author.class)
+                    .setFirstResult(randomPage() * PAGE_SIZE)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList();
+            authors.forEach(author -> author.getBooks().size());
+            return authors;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static int randomPage() {
+        return ThreadLocalRandom.current().nextInt(AUTHORS / PAGE_SIZE);
+    }
+}
@@ -0,0 +1,38 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.model.Account;
+import com.bobocode.model.Gender;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Generates deterministic, not yet stored {@link Account} instances for benchmarks. Every account has a unique email.
+ */
+public class BenchmarkAccounts {
+
+    public static List<Account> generate(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(BenchmarkAccounts::generateAccount)
+                .toList();
+    }
+
+    public static Account generateAccount(int index) {
+        Account account = new Account();
+        account.setFirstName("First " + index);
+        account.setLastName("Last " + index);
+        account.setEmail(email(index));
+        account.setBirthday(LocalDate.of(1990, 1, 1).plusDays(index % 10_000));
+        account.setGender(index % 2 == 0 ? Gender.FEMALE : Gender.MALE);
+        account.setCreationTime(LocalDateTime.of(2020, 1, 1, 0, 0).plusMinutes(index));
+        account.setBalance(BigDecimal.valueOf(index % 200_000, 2));
+        return account;
+    }
+
+    public static String email(int index) {
+        return "account" + index + "@bobocode.com";
+    }
+}
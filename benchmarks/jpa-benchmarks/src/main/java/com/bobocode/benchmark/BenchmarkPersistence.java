@@ -0,0 +1,92 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.util.JdbcUtil;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link BenchmarkPersistence} creates entity manager factories of the exercise persistence units for JPA benchmarks.
+ * The connection settings of a unit are replaced with a given data source, so every unit can use the in-memory H2
+ * database of {@link JdbcUtil#createDefaultPooledInMemoryH2DataSource()}, and SQL logging is turned off.
+ */
+public class BenchmarkPersistence {
+
+    /**
+     * Creates an entity manager factory of the persistence unit that takes connections from the data source. The data
+     * source is not closed by {@link EntityManagerFactory#close()}.
+     */
+    public static EntityManagerFactory createEntityManagerFactory(String persistenceUnitName, DataSource dataSource) {
+        return createEntityManagerFactory(persistenceUnitName, dataSource, Map.of());
+    }
+
+    /**
+     * Creates an entity manager factory like {@link #createEntityManagerFactory(String, DataSource)} with additional
+     * properties that override the settings of the persistence unit
+     */
+    public static EntityManagerFactory createEntityManagerFactory(String persistenceUnitName, DataSource dataSource,
+                                                                  Map<String, ?> properties) {
+        Map<String, Object> unitProperties = new HashMap<>(properties);
+        unitProperties.put(AvailableSettings.CONNECTION_PROVIDER, new DataSourceConnectionProvider(dataSource));
+        unitProperties.put(AvailableSettings.HBM2DDL_AUTO, "create");
+        unitProperties.put(AvailableSettings.SHOW_SQL, "false");
+        unitProperties.put(AvailableSettings.FORMAT_SQL, "false");
+        return Persistence.createEntityManagerFactory(persistenceUnitName, unitProperties);
+    }
+
+    /**
+     * Persists the entities in a single transaction
+     */
+    public static void persistAll(EntityManagerFactory entityManagerFactory, Collection<?> entities) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entities.forEach(entityManager::persist);
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Takes connections from a data source without the credentials of the persistence unit, which the pooled data
+     * source does not accept
+     */
+    private record DataSourceConnectionProvider(DataSource dataSource) implements ConnectionProvider {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return dataSource.getConnection();
+        }
+
+        @Override
+        public void closeConnection(Connection connection) throws SQLException {
+            connection.close();
+        }
+
+        @Override
+        public boolean supportsAggressiveRelease() {
+            return false;
+        }
+
+        @Override
+        public boolean isUnwrappableAs(Class unwrapType) {
+            return unwrapType.isInstance(this) || unwrapType.isInstance(dataSource);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T unwrap(Class<T> unwrapType) {
+            return unwrapType.isInstance(this) ? (T) this : (T) dataSource;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.BookDao;
+import com.bobocode.dao.BookDaoImpl;
+import com.bobocode.model.Book;
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.PooledDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares {@link BookDaoImpl#findByIsbn(String)}, which resolves the ISBN through the natural-id cache, with a JPQL
+ * query by ISBN on {@code books} stored books. The score is reported in found books per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookDaoBenchmark {
+
+    @Param({"1000"})
+    private int books;
+
+    private PooledDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private BookDao bookDao;
+    private List<String> isbns;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = JdbcUtil.createDefaultPooledInMemoryH2DataSource();
+        entityManagerFactory = BenchmarkPersistence.createEntityManagerFactory("BookAuthors", dataSource);
+        bookDao = new BookDaoImpl(entityManagerFactory);
+        List<Book> storedBooks = IntStream.range(0, books).mapToObj(BookDaoBenchmark::generateBook).toList();
+        BenchmarkPersistence.persistAll(entityManagerFactory, storedBooks);
+        isbns = storedBooks.stream().map(Book::getIsbn).toList();
+    }
+
+    private static Book generateBook(int index) {
+        Book book = new Book();
+        book.setName("Book " + index);
+        book.setIsbn(String.format("978-0-%09d", index));
+        return book;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Book findByIsbn() {
+        return bookDao.findByIsbn(randomIsbn());
+    }
+
+    @Benchmark
+    public Book findByIsbnQuery() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("select b from Book b where b.isbn = :isbn", Book.class)
+                    .setParameter("isbn", randomIsbn())
+                    .getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private String randomIsbn() {
+        return isbns.get(ThreadLocalRandom.current().nextInt(books));
+    }
+}
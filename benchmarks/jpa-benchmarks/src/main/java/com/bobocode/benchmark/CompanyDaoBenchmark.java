@@ -0,0 +1,131 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.CompanyDao;
+import com.bobocode.dao.CompanyDaoImpl;
+import com.bobocode.dao.CompanyProductCount;
+import com.bobocode.model.Company;
+import com.bobocode.model.Product;
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.PooledDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures {@link CompanyDaoImpl} reads on 100 stored companies with {@code productsPerCompany} products each:
+ * loading one company, a page of {@value #PAGE_SIZE} companies, and exporting all companies with
+ * {@link CompanyDaoImpl#streamAllFetchProducts(int)}. {@code findPageInMemory} is the baseline of a fetch join with
+ * {@code setMaxResults}, which Hibernate paginates in memory after reading the products of all companies. The score
+ * is reported in operations per second. {@code countProducts} and {@code countProductsPerCompany} aggregate in the
+ * database, compare them with {@code findByIdFetchProducts}, which loads the products to count them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompanyDaoBenchmark {
+    private static final int COMPANIES = 100;
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"10", "1000"})
+    private int productsPerCompany;
+
+    private PooledDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private CompanyDao companyDao;
+    private long[] companyIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = JdbcUtil.createDefaultPooledInMemoryH2DataSource();
+        entityManagerFactory = BenchmarkPersistence.createEntityManagerFactory("CompanyProducts", dataSource);
+        companyDao = new CompanyDaoImpl(entityManagerFactory);
+        List<Company> companies = new ArrayList<>();
+        List<Object> entities = new ArrayList<>();
+        for (int companyIndex = 0; companyIndex < COMPANIES; companyIndex++) {
+            Company company = new Company();
+            company.setName("Company " + companyIndex);
+            for (int productIndex = 0; productIndex < productsPerCompany; productIndex++) {
+                Product product = new Product();
+                product.setName("Product " + productIndex);
+                company.addProduct(product);
+            }
+            companies.add(company);
+            entities.add(company);
+            entities.addAll(company.getProducts());
+        }
+        BenchmarkPersistence.persistAll(entityManagerFactory, entities);
+        companyIds = companies.stream().mapToLong(Company::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Company findByIdFetchProducts() {
+        return companyDao.findByIdFetchProducts(companyIds[ThreadLocalRandom.current().nextInt(COMPANIES)]);
+    }
+
+    @Benchmark
+    public List<Company> findAllFetchProducts() {
+        return companyDao.findAllFetchProducts(randomPage(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Company> findPageInMemory() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("select distinct c from Company c left join fetch c.products order by c.id",
+                            Company.class)
+                    .setFirstResult(randomPage() * PAGE_SIZE)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public long streamAllFetchProducts() {
+        try (Stream<Company> companies = companyDao.streamAllFetchProducts(PAGE_SIZE)) {
+            return companies.mapToLong(company -> company.getProducts().size()).sum();
+        }
+    }
+
+    @Benchmark
+    public long countProducts() {
+        return companyDao.countProducts(companyIds[ThreadLocalRandom.current().nextInt(COMPANIES)]);
+    }
+
+    @Benchmark
+    public List<CompanyProductCount> countProductsPerCompany() {
+        return companyDao.countProductsPerCompany();
+    }
+
+    private static int randomPage() {
+        return ThreadLocalRandom.current().nextInt(COMPANIES / PAGE_SIZE);
+    }
+}
@@ -0,0 +1,77 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.PhotoDao;
+import com.bobocode.dao.PhotoDaoImpl;
+import com.bobocode.model.Photo;
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.PooledDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures {@link PhotoDaoImpl#addComment(long, String)}, which adds a comment to a photo by id without loading the
+ * photo, on a table of {@code photos} stored photos. The score is reported in added comments per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhotoDaoBenchmark {
+
+    @Param({"100", "10000"})
+    private int photos;
+
+    private PooledDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private PhotoDao photoDao;
+    private long[] photoIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = JdbcUtil.createDefaultPooledInMemoryH2DataSource();
+        entityManagerFactory = BenchmarkPersistence.createEntityManagerFactory("PhotoComments", dataSource);
+        photoDao = new PhotoDaoImpl(entityManagerFactory);
+        List<Photo> storedPhotos = IntStream.range(0, photos)
+                .mapToObj(PhotoDaoBenchmark::createPhoto)
+                .toList();
+        BenchmarkPersistence.persistAll(entityManagerFactory, storedPhotos);
+        photoIds = storedPhotos.stream().mapToLong(Photo::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public void addComment() {
+        photoDao.addComment(photoIds[ThreadLocalRandom.current().nextInt(photos)], "Nice photo!");
+    }
+
+    private static Photo createPhoto(int index) {
+        Photo photo = new Photo();
+        photo.setUrl("https://bobocode.com/photos/" + index + ".png");
+        photo.setDescription("Photo " + index);
+        return photo;
+    }
+}
@@ -0,0 +1,73 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.QueryHelper;
+import com.bobocode.model.Account;
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.PooledDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reads performed with {@link QueryHelper#readWithinTx} on a table of {@code accounts} stored accounts.
+ * The score is reported in operations per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryHelperBenchmark {
+
+    @Param({"1000", "10000"})
+    private int accounts;
+
+    private PooledDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private QueryHelper queryHelper;
+    private long[] accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = JdbcUtil.createDefaultPooledInMemoryH2DataSource();
+        entityManagerFactory = BenchmarkPersistence.createEntityManagerFactory("Account", dataSource);
+        queryHelper = new QueryHelper(entityManagerFactory);
+        List<Account> storedAccounts = BenchmarkAccounts.generate(accounts);
+        BenchmarkPersistence.persistAll(entityManagerFactory, storedAccounts);
+        accountIds = storedAccounts.stream().mapToLong(Account::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Account readById() {
+        long id = accountIds[ThreadLocalRandom.current().nextInt(accounts)];
+        return queryHelper.readWithinTx(entityManager -> entityManager.find(Account.class, id));
+    }
+
+    @Benchmark
+    public List<Account> readAll() {
+        return queryHelper.readWithinTx(entityManager ->
+                entityManager.createQuery("select a from Account a", Account.class).getResultList());
+    }
+}
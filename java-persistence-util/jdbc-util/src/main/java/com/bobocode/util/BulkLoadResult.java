@@ -0,0 +1,28 @@
+package com.bobocode.util;
+
+import java.time.Duration;
+
+/**
+ * {@link BulkLoadResult} reports the outcome of a {@link BulkLoader} run
+ *
+ * @param rows    number of loaded rows
+ * @param elapsed time spent on the load including the commit
+ * @param method  way the rows were sent to the database
+ */
+public record BulkLoadResult(long rows, Duration elapsed, Method method) {
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : rows * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows via %s in %d ms (%.0f rows/s)", rows, method, elapsed.toMillis(), rowsPerSecond());
+    }
+
+    public enum Method {
+        COPY,
+        BATCH_INSERT
+    }
+}
@@ -0,0 +1,168 @@
+package com.bobocode.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * {@link BulkLoader} loads large amounts of rows into a table within one transaction. On PostgreSQL the rows are
+ * streamed with {@code COPY ... FROM STDIN} in CSV format through the driver {@link org.postgresql.copy.CopyManager}:
+ * they are formatted into a small buffer that is flushed to the server whenever it fills up, so the whole payload
+ * is never built in memory. Other databases, like H2, get batched {@code INSERT} statements instead.
+ * <p>
+ * PostgreSQL is detected by unwrapping the connection to {@link PGConnection}, so it works both with the
+ * {@link JdbcUtil#createPostgresDataSource(String, String, String)} data source and with a {@link PooledDataSource}
+ * on top of it.
+ *
+ * @param <T> row type
+ */
+@Slf4j
+public class BulkLoader<T> {
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final DataSource dataSource;
+    private final TableMapping<T> tableMapping;
+    private final int batchSize;
+
+    public BulkLoader(DataSource dataSource, TableMapping<T> tableMapping) {
+        this(dataSource, tableMapping, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param dataSource   database connection source
+     * @param tableMapping columns of the target table
+     * @param batchSize    number of rows in one JDBC batch when {@code COPY} is not available
+     */
+    public BulkLoader(DataSource dataSource, TableMapping<T> tableMapping, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.dataSource = dataSource;
+        this.tableMapping = tableMapping;
+        this.batchSize = batchSize;
+    }
+
+    public BulkLoadResult load(Iterable<T> rows) throws SQLException {
+        return load(rows.iterator());
+    }
+
+    /**
+     * Loads all the rows in one transaction. The iterator is consumed lazily, so rows can be produced on the fly.
+     *
+     * @param rows rows to load
+     * @return number of loaded rows and the throughput
+     * @throws SQLException in case of database errors, nothing is loaded in this case
+     */
+    public BulkLoadResult load(Iterator<T> rows) throws SQLException {
+        long startNanos = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                BulkLoadResult.Method method;
+                long loadedRows;
+                if (connection.isWrapperFor(PGConnection.class)) {
+                    method = BulkLoadResult.Method.COPY;
+                    loadedRows = copy(connection.unwrap(PGConnection.class), rows);
+                } else {
+                    method = BulkLoadResult.Method.BATCH_INSERT;
+                    loadedRows = insertInBatches(connection, rows);
+                }
+                connection.commit();
+                BulkLoadResult result = new BulkLoadResult(loadedRows, Duration.ofNanos(System.nanoTime() - startNanos), method);
+                log.info("Loaded {} into {}", result, tableMapping.getTableName());
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private long copy(PGConnection connection, Iterator<T> rows) throws SQLException {
+        String sql = String.format("COPY %s (%s) FROM STDIN WITH (FORMAT csv)",
+                tableMapping.getTableName(), String.join(", ", tableMapping.getColumns()));
+        CopyIn copyIn = connection.getCopyAPI().copyIn(sql);
+        try {
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 1024);
+            while (rows.hasNext()) {
+                appendCsvRow(buffer, tableMapping.getValues(rows.next()));
+                if (buffer.length() >= COPY_BUFFER_SIZE) {
+                    writeToCopy(copyIn, buffer);
+                }
+            }
+            writeToCopy(copyIn, buffer);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.length() > 0) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+    /**
+     * Appends a CSV line in the PostgreSQL {@code COPY} format: NULL is an empty unquoted value, all other values
+     * are quoted, so that an empty string is not read as NULL.
+     */
+    static void appendCsvRow(StringBuilder buffer, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            Object value = values[i];
+            if (value != null) {
+                String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+                buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+            }
+        }
+        buffer.append('\n');
+    }
+
+    private long insertInBatches(Connection connection, Iterator<T> rows) throws SQLException {
+        String sql = String.format("INSERT INTO %s (%s) VALUES (%s)",
+                tableMapping.getTableName(),
+                String.join(", ", tableMapping.getColumns()),
+                String.join(", ", Collections.nCopies(tableMapping.getColumns().size(), "?")));
+        long loadedRows = 0;
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            int batchedRows = 0;
+            while (rows.hasNext()) {
+                Object[] values = tableMapping.getValues(rows.next());
+                for (int i = 0; i < values.length; i++) {
+                    preparedStatement.setObject(i + 1, values[i]);
+                }
+                preparedStatement.addBatch();
+                if (++batchedRows == batchSize) {
+                    preparedStatement.executeBatch();
+                    loadedRows += batchedRows;
+                    batchedRows = 0;
+                }
+            }
+            if (batchedRows > 0) {
+                preparedStatement.executeBatch();
+                loadedRows += batchedRows;
+            }
+        }
+        return loadedRows;
+    }
+}
@@ -0,0 +1,41 @@
+package com.bobocode.util;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@link ColumnIndexes} resolves result set column labels to their positions. Labels are case-insensitive, the first
+ * column wins if the same label occurs more than once (like {@link java.sql.ResultSet#findColumn(String)}).
+ */
+public class ColumnIndexes {
+    private final Map<String, Integer> indexesByLabel;
+
+    private ColumnIndexes(Map<String, Integer> indexesByLabel) {
+        this.indexesByLabel = indexesByLabel;
+    }
+
+    public static ColumnIndexes of(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        Map<String, Integer> indexesByLabel = new HashMap<>(columnCount * 2);
+        for (int i = 1; i <= columnCount; i++) {
+            indexesByLabel.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        return new ColumnIndexes(indexesByLabel);
+    }
+
+    /**
+     * @param label column label
+     * @return 1-based column index
+     * @throws SQLException if the result set has no such column
+     */
+    public int indexOf(String label) throws SQLException {
+        Integer index = indexesByLabel.get(label.toLowerCase(Locale.ROOT));
+        if (index == null) {
+            throw new SQLException(String.format("Column '%s' not found in %s", label, indexesByLabel.keySet()));
+        }
+        return index;
+    }
+}
@@ -0,0 +1,46 @@
+package com.bobocode.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * {@link Dialect} identifies a database whose SQL extensions (upserts, array parameters, COPY) differ from the
+ * standard. It is detected from the connection metadata, so the same DAO works with both H2 and PostgreSQL.
+ */
+public enum Dialect {
+    POSTGRES("PostgreSQL"),
+    H2("H2");
+
+    private final String databaseProductName;
+
+    Dialect(String databaseProductName) {
+        this.databaseProductName = databaseProductName;
+    }
+
+    /**
+     * Detects the dialect of a connection
+     *
+     * @param connection database connection
+     * @return dialect of the database
+     * @throws SQLFeatureNotSupportedException if the database is neither PostgreSQL nor H2
+     * @throws SQLException                    in case of database errors
+     */
+    public static Dialect of(Connection connection) throws SQLException {
+        String productName = connection.getMetaData().getDatabaseProductName();
+        for (Dialect dialect : values()) {
+            if (dialect.databaseProductName.equalsIgnoreCase(productName)) {
+                return dialect;
+            }
+        }
+        throw new SQLFeatureNotSupportedException(String.format("Database %s is not supported", productName));
+    }
+
+    /**
+     * @return {@code true} if {@code column = ANY(?)} can be bound to a single SQL array, so the statement text
+     * does not depend on the number of values
+     */
+    public boolean supportsArrayParameters() {
+        return this == POSTGRES;
+    }
+}
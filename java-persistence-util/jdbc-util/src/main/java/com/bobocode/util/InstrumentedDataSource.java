@@ -0,0 +1,404 @@
+package com.bobocode.util;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * {@link InstrumentedDataSource} wraps any {@link DataSource} (e.g. the ones created by {@link JdbcUtil}, including
+ * {@link PooledDataSource}) and records what the client code does with it:
+ * <ul>
+ *     <li>per SQL statement: executions, errors, execution time, rows fetched and updated, batch sizes</li>
+ *     <li>per connection: time from {@link DataSource#getConnection()} to {@link Connection#close()}</li>
+ * </ul>
+ * Connections, statements and result sets are dynamic proxies of the target ones, so the client code does not need to
+ * change. Each call goes through reflection, which costs well under a microsecond and is negligible next to a
+ * database round trip, but the wrapper is meant for finding out where the time goes rather than for hot paths that
+ * read millions of columns.
+ * <p>
+ * Statements are grouped by their SQL text. At most {@link InstrumentedDataSource#MAX_TRACKED_STATEMENTS} distinct
+ * statements are tracked, the others are recorded under {@link InstrumentedDataSource#OTHER_STATEMENTS}, so queries
+ * built with literals cannot exhaust the memory. A batch of a plain {@link Statement} is recorded under the SQL of
+ * its first command.
+ */
+public class InstrumentedDataSource implements DataSource, AutoCloseable {
+    public static final int MAX_TRACKED_STATEMENTS = 1_000;
+    public static final String OTHER_STATEMENTS = "<other statements>";
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final DataSource targetDataSource;
+    private final ConcurrentMap<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private volatile LatencyHistogram connectionHoldTime = new LatencyHistogram();
+
+    public InstrumentedDataSource(DataSource targetDataSource) {
+        this.targetDataSource = targetDataSource;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return instrument(targetDataSource.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return instrument(targetDataSource.getConnection(username, password));
+    }
+
+    private Connection instrument(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection)
+        );
+    }
+
+    /**
+     * Returns the metrics of all recorded statements
+     *
+     * @return statement metrics in no particular order
+     */
+    public List<StatementMetrics> getStatementMetrics() {
+        return statements.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .toList();
+    }
+
+    /**
+     * Returns the statements that took the most time in total, which are the best candidates for optimization: a fast
+     * statement executed in a loop usually costs more than a slow report query executed once.
+     *
+     * @param limit maximum number of statements
+     * @return statement metrics ordered by total execution time, the slowest first
+     */
+    public List<StatementMetrics> getSlowestStatements(int limit) {
+        return getStatementMetrics().stream()
+                .sorted(Comparator.comparingLong((StatementMetrics metrics) -> metrics.executionTime().totalNanos())
+                        .reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Returns a histogram of the time between acquiring and closing connections
+     *
+     * @return connection hold time snapshot
+     */
+    public LatencyHistogram.Snapshot getConnectionHoldTime() {
+        return connectionHoldTime.snapshot();
+    }
+
+    /**
+     * Formats a human-readable report of the connection hold time and the slowest statements, e.g. to be logged
+     * at the end of a test or a benchmark
+     *
+     * @param limit maximum number of statements
+     * @return multi-line report
+     */
+    public String formatReport(int limit) {
+        StringBuilder report = new StringBuilder()
+                .append("Connection hold time: ").append(getConnectionHoldTime()).append(System.lineSeparator())
+                .append("Top ").append(limit).append(" statements by total execution time:");
+        for (StatementMetrics metrics : getSlowestStatements(limit)) {
+            report.append(System.lineSeparator()).append("  ").append(metrics);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Discards all recorded metrics
+     */
+    public void reset() {
+        statements.clear();
+        connectionHoldTime = new LatencyHistogram();
+    }
+
+    public DataSource getTargetDataSource() {
+        return targetDataSource;
+    }
+
+    private StatementStats statsOf(String sql) {
+        StatementStats stats = statements.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        String key = statements.size() < MAX_TRACKED_STATEMENTS ? sql : OTHER_STATEMENTS;
+        return statements.computeIfAbsent(key, k -> new StatementStats());
+    }
+
+    /**
+     * Closes the target data source if it can be closed, e.g. a {@link PooledDataSource}
+     */
+    @Override
+    public void close() throws Exception {
+        if (targetDataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return targetDataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        targetDataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        targetDataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return targetDataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return targetDataSource.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : targetDataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || targetDataSource.isWrapperFor(iface);
+    }
+
+    private static Object invokeOnTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Handles the methods every proxy implements the same way. Returns {@code null} for the other methods.
+     */
+    private static Object invokeObjectMethod(Object proxy, Object target, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "Instrumented" + target;
+            case "unwrap" -> ((Class<?>) args[0]).isInstance(proxy) ? proxy : null;
+            case "isWrapperFor" -> ((Class<?>) args[0]).isInstance(proxy) ? Boolean.TRUE : null;
+            default -> null;
+        };
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+        private final long acquiredAtNanos = System.nanoTime();
+        private boolean closed;
+
+        private ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object objectMethodResult = invokeObjectMethod(proxy, connection, method, args);
+            if (objectMethodResult != null) {
+                return objectMethodResult;
+            }
+            String methodName = method.getName();
+            if (methodName.equals("close") && !closed) {
+                closed = true;
+                connectionHoldTime.record(System.nanoTime() - acquiredAtNanos);
+            }
+            Object result = invokeOnTarget(connection, method, args);
+            if (result instanceof Statement statement) {
+                String sql = methodName.startsWith("prepare") ? (String) args[0] : null;
+                return Proxy.newProxyInstance(
+                        InstrumentedDataSource.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()},
+                        new StatementHandler(statement, sql, (Connection) proxy)
+                );
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Records executions of a statement. A prepared statement is recorded under the SQL it was prepared with, a plain
+     * statement under the SQL passed to each execute call.
+     */
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final StatementStats preparedStats;
+        private final Connection connection;
+        private String batchSql;
+        private int batchSize;
+        private StatementStats lastStats;
+
+        private StatementHandler(Statement statement, String preparedSql, Connection connection) {
+            this.statement = statement;
+            this.preparedStats = preparedSql == null ? null : statsOf(preparedSql);
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object objectMethodResult = invokeObjectMethod(proxy, statement, method, args);
+            if (objectMethodResult != null) {
+                return objectMethodResult;
+            }
+            String methodName = method.getName();
+            switch (methodName) {
+                case "getConnection":
+                    return connection;
+                case "addBatch":
+                    if (batchSql == null && args != null) {
+                        batchSql = (String) args[0];
+                    }
+                    batchSize++;
+                    break;
+                case "clearBatch":
+                    batchSql = null;
+                    batchSize = 0;
+                    break;
+                default:
+                    break;
+            }
+            if (EXECUTE_METHODS.contains(methodName)) {
+                return execute(proxy, method, args);
+            }
+            Object result = invokeOnTarget(statement, method, args);
+            if (result instanceof ResultSet resultSet && methodName.equals("getResultSet") && lastStats != null) {
+                return instrument(resultSet, lastStats, proxy);
+            }
+            return result;
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            boolean batch = method.getName().endsWith("Batch");
+            StatementStats stats = resolveStats(batch, args);
+            lastStats = stats;
+            int executedBatchSize = batchSize;
+            if (batch) {
+                batchSql = null;
+                batchSize = 0;
+            }
+            long startNanos = System.nanoTime();
+            Object result;
+            try {
+                result = invokeOnTarget(statement, method, args);
+            } catch (Throwable e) {
+                stats.errors.increment();
+                throw e;
+            } finally {
+                stats.executionTime.record(System.nanoTime() - startNanos);
+            }
+            if (batch) {
+                stats.batches.increment();
+                stats.batchedRows.add(executedBatchSize);
+            }
+            recordUpdateCounts(stats, result);
+            if (result instanceof ResultSet resultSet) {
+                return instrument(resultSet, stats, proxy);
+            }
+            return result;
+        }
+
+        private StatementStats resolveStats(boolean batch, Object[] args) {
+            if (preparedStats != null) {
+                return preparedStats;
+            } else if (batch) {
+                return statsOf(batchSql == null ? OTHER_STATEMENTS : batchSql);
+            }
+            return statsOf((String) args[0]);
+        }
+
+        private void recordUpdateCounts(StatementStats stats, Object result) throws SQLException {
+            if (Boolean.FALSE.equals(result)) {
+                stats.rowsUpdated.add(Math.max(statement.getUpdateCount(), 0));
+            } else if (result instanceof Integer count) {
+                stats.rowsUpdated.add(count);
+            } else if (result instanceof Long count) {
+                stats.rowsUpdated.add(count);
+            } else if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    stats.rowsUpdated.add(Math.max(count, 0));
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    stats.rowsUpdated.add(Math.max(count, 0));
+                }
+            }
+        }
+
+        private ResultSet instrument(ResultSet resultSet, StatementStats stats, Object statementProxy) {
+            return (ResultSet) Proxy.newProxyInstance(
+                    InstrumentedDataSource.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    new ResultSetHandler(resultSet, stats, (Statement) statementProxy)
+            );
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final StatementStats stats;
+        private final Statement statement;
+
+        private ResultSetHandler(ResultSet resultSet, StatementStats stats, Statement statement) {
+            this.resultSet = resultSet;
+            this.stats = stats;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object objectMethodResult = invokeObjectMethod(proxy, resultSet, method, args);
+            if (objectMethodResult != null) {
+                return objectMethodResult;
+            }
+            if (method.getName().equals("getStatement")) {
+                return statement;
+            }
+            Object result = invokeOnTarget(resultSet, method, args);
+            if (method.getName().equals("next") && (Boolean) result) {
+                stats.rowsFetched.increment();
+            }
+            return result;
+        }
+    }
+
+    private static class StatementStats {
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rowsFetched = new LongAdder();
+        private final LongAdder rowsUpdated = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder batchedRows = new LongAdder();
+        private final LatencyHistogram executionTime = new LatencyHistogram();
+
+        private StatementMetrics snapshot(String sql) {
+            LatencyHistogram.Snapshot executionTimeSnapshot = executionTime.snapshot();
+            return new StatementMetrics(sql, executionTimeSnapshot.count(), errors.sum(), rowsFetched.sum(),
+                    rowsUpdated.sum(), batches.sum(), batchedRows.sum(), executionTimeSnapshot);
+        }
+    }
+}
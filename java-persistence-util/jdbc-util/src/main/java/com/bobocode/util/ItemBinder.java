@@ -0,0 +1,14 @@
+package com.bobocode.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Sets parameters of a {@link PreparedStatement} from one item of a JDBC batch executed by {@link JdbcTemplate}
+ *
+ * @param <T> item type
+ */
+@FunctionalInterface
+public interface ItemBinder<T> {
+    void bind(PreparedStatement preparedStatement, T item) throws SQLException;
+}
@@ -0,0 +1,332 @@
+package com.bobocode.util;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link JdbcTemplate} removes JDBC boilerplate: it obtains a connection from {@link TransactionManager}, prepares
+ * the statement, binds parameters, maps rows with {@link RowMapper} and closes all the resources. Inside
+ * {@link TransactionManager#inTransaction(TransactionManager.TransactionCallback)} all the operations share the
+ * transaction connection.
+ */
+public class JdbcTemplate {
+    private final TransactionManager transactionManager;
+    private volatile Dialect dialect;
+
+    public JdbcTemplate(DataSource dataSource) {
+        this(new TransactionManager(dataSource));
+    }
+
+    public JdbcTemplate(TransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    public TransactionManager getTransactionManager() {
+        return transactionManager;
+    }
+
+    /**
+     * Returns the dialect of the database. It is detected on the first call and cached afterwards.
+     *
+     * @return database dialect
+     * @throws SQLException in case of database errors or if the database is not supported
+     */
+    public Dialect getDialect() throws SQLException {
+        Dialect detectedDialect = dialect;
+        if (detectedDialect == null) {
+            detectedDialect = transactionManager.execute(Dialect::of);
+            dialect = detectedDialect;
+        }
+        return detectedDialect;
+    }
+
+    /**
+     * Executes a query and maps all the rows
+     *
+     * @return list of mapped rows
+     * @throws SQLException in case of database errors
+     */
+    public <T> List<T> query(String sql, StatementBinder binder, RowMapper<T> rowMapper) throws SQLException {
+        return transactionManager.execute(connection -> {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                binder.bind(preparedStatement);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    return mapRows(resultSet, rowMapper);
+                }
+            }
+        });
+    }
+
+    /**
+     * Executes a query and maps the first row if there is any
+     *
+     * @return mapped first row, or empty if the query returned no rows
+     * @throws SQLException in case of database errors
+     */
+    public <T> Optional<T> queryForOptional(String sql, StatementBinder binder, RowMapper<T> rowMapper)
+            throws SQLException {
+        return transactionManager.execute(connection -> {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                binder.bind(preparedStatement);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    return resultSet.next()
+                            ? Optional.of(rowMapper.bind(resultSet.getMetaData()).mapRow(resultSet))
+                            : Optional.empty();
+                }
+            }
+        });
+    }
+
+    /**
+     * Executes INSERT, UPDATE or DELETE statement
+     *
+     * @return number of affected rows
+     * @throws SQLException in case of database errors
+     */
+    public int update(String sql, StatementBinder binder) throws SQLException {
+        return transactionManager.execute(connection -> {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                binder.bind(preparedStatement);
+                return preparedStatement.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Executes INSERT statement that generates a single numeric key
+     *
+     * @return generated key
+     * @throws SQLException in case of database errors or if no key was generated
+     */
+    public long insertReturningKey(String sql, StatementBinder binder) throws SQLException {
+        return transactionManager.execute(connection -> {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                binder.bind(preparedStatement);
+                preparedStatement.executeUpdate();
+                try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("No key was generated");
+                    }
+                    return generatedKeys.getLong(1);
+                }
+            }
+        });
+    }
+
+    /**
+     * Executes one statement for every item using JDBC batches of at most batchSize items. All the batches are
+     * executed in one transaction.
+     *
+     * @return number of affected rows for every item, in iteration order
+     * @throws SQLException in case of database errors
+     */
+    public <T> int[] batchUpdate(String sql, Collection<T> items, ItemBinder<T> binder, int batchSize)
+            throws SQLException {
+        return transactionManager.inTransaction(() -> transactionManager.execute(connection -> {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                return executeBatches(preparedStatement, items, binder, batchSize, chunk -> {
+                });
+            }
+        }));
+    }
+
+    /**
+     * Executes INSERT statement for every item using JDBC batches of at most batchSize items in one transaction, and
+     * passes the key generated for every item to the keyConsumer in iteration order.
+     *
+     * @throws SQLException in case of database errors or if the driver did not return a key for every item
+     */
+    public <T> void batchInsertReturningKeys(String sql, Collection<T> items, ItemBinder<T> binder, int batchSize,
+                                             GeneratedKeyConsumer<T> keyConsumer) throws SQLException {
+        transactionManager.inTransaction(() -> transactionManager.execute(connection -> {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                return executeBatches(preparedStatement, items, binder, batchSize, chunk -> {
+                    try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                        for (T item : chunk) {
+                            if (!generatedKeys.next()) {
+                                throw new SQLException("Driver returned fewer generated keys than batch items");
+                            }
+                            keyConsumer.accept(item, generatedKeys.getLong(1));
+                        }
+                    }
+                });
+            }
+        }));
+    }
+
+    /**
+     * Executes a statement that returns one row for every item, e.g. an upsert with a {@code RETURNING} clause, using
+     * JDBC batches of at most batchSize items in one transaction. The rows are read through
+     * {@link Statement#getGeneratedKeys()}, the PostgreSQL driver keeps the {@code RETURNING} clause of the statement
+     * instead of appending its own.
+     *
+     * @return row returned for every item mapped by the rowMapper, in iteration order
+     * @throws SQLException in case of database errors or if the driver did not return a row for every item
+     */
+    public <T, R> List<R> batchUpdateReturning(String sql, Collection<T> items, ItemBinder<T> binder, int batchSize,
+                                               RowMapper<R> rowMapper) throws SQLException {
+        List<R> returnedRows = new ArrayList<>(items.size());
+        transactionManager.inTransaction(() -> transactionManager.execute(connection -> {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                return executeBatches(preparedStatement, items, binder, batchSize, chunk -> {
+                    try (ResultSet resultSet = preparedStatement.getGeneratedKeys()) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            if (!resultSet.next()) {
+                                throw new SQLException("Driver returned fewer rows than batch items");
+                            }
+                            returnedRows.add(rowMapper.mapRow(resultSet));
+                        }
+                    }
+                });
+            }
+        }));
+        return returnedRows;
+    }
+
+    private <T> int[] executeBatches(PreparedStatement preparedStatement, Collection<T> items, ItemBinder<T> binder,
+                                     int batchSize, BatchCallback<T> afterBatch) throws SQLException {
+        int[] affectedRows = new int[items.size()];
+        int executedItems = 0;
+        List<T> chunk = new ArrayList<>(Math.min(batchSize, items.size()));
+        for (T item : items) {
+            binder.bind(preparedStatement, item);
+            preparedStatement.addBatch();
+            chunk.add(item);
+            if (chunk.size() == batchSize) {
+                executedItems = executeBatch(preparedStatement, chunk, afterBatch, affectedRows, executedItems);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            executeBatch(preparedStatement, chunk, afterBatch, affectedRows, executedItems);
+        }
+        return affectedRows;
+    }
+
+    private <T> int executeBatch(PreparedStatement preparedStatement, List<T> chunk, BatchCallback<T> afterBatch,
+                                 int[] affectedRows, int offset) throws SQLException {
+        int[] batchResult = preparedStatement.executeBatch();
+        System.arraycopy(batchResult, 0, affectedRows, offset, batchResult.length);
+        afterBatch.accept(chunk);
+        int executedItems = offset + chunk.size();
+        chunk.clear();
+        return executedItems;
+    }
+
+    /**
+     * Executes a query and returns a lazy stream of mapped rows. Rows are fetched in chunks of fetchSize. Outside
+     * of a transaction the stream uses its own connection with auto-commit disabled, so that drivers like
+     * PostgreSQL read the result through a server-side cursor. The stream must be closed to release the resources.
+     *
+     * @param exceptionTranslator converts errors that happen while the stream is consumed or closed
+     * @return stream of mapped rows
+     * @throws SQLException in case of database errors while executing the query
+     */
+    public <T> Stream<T> queryForStream(String sql, StatementBinder binder, RowMapper<T> rowMapper, int fetchSize,
+                                        Function<SQLException, ? extends RuntimeException> exceptionTranslator)
+            throws SQLException {
+        Connection connection = transactionManager.getConnection();
+        boolean ownConnection = !transactionManager.isBound(connection);
+        PreparedStatement preparedStatement = null;
+        try {
+            if (ownConnection) {
+                connection.setAutoCommit(false);
+            }
+            preparedStatement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            preparedStatement.setFetchSize(fetchSize);
+            binder.bind(preparedStatement);
+            ResultSet resultSet = preparedStatement.executeQuery();
+            ResultSetSpliterator<T> spliterator = new ResultSetSpliterator<>(resultSet, rowMapper, exceptionTranslator);
+            PreparedStatement streamStatement = preparedStatement;
+            return StreamSupport.stream(spliterator, false)
+                    .onClose(() -> closeStream(resultSet, streamStatement, connection, ownConnection, exceptionTranslator));
+        } catch (SQLException | RuntimeException e) {
+            closeAfterFailure(preparedStatement, connection, e);
+            throw e;
+        }
+    }
+
+    private void closeStream(ResultSet resultSet, Statement statement, Connection connection, boolean ownConnection,
+                             Function<SQLException, ? extends RuntimeException> exceptionTranslator) {
+        try (statement; resultSet) {
+            if (ownConnection) {
+                try (connection) {
+                    connection.commit();
+                }
+            }
+        } catch (SQLException e) {
+            throw exceptionTranslator.apply(e);
+        }
+    }
+
+    private void closeAfterFailure(Statement statement, Connection connection, Exception cause) {
+        try {
+            if (statement != null) {
+                statement.close();
+            }
+            transactionManager.releaseConnection(connection);
+        } catch (SQLException closeException) {
+            cause.addSuppressed(closeException);
+        }
+    }
+
+    private static <T> List<T> mapRows(ResultSet resultSet, RowMapper<T> rowMapper) throws SQLException {
+        RowMapper<T> boundRowMapper = rowMapper.bind(resultSet.getMetaData());
+        List<T> rows = new ArrayList<>();
+        while (resultSet.next()) {
+            rows.add(boundRowMapper.mapRow(resultSet));
+        }
+        return rows;
+    }
+
+    @FunctionalInterface
+    public interface GeneratedKeyConsumer<T> {
+        void accept(T item, long generatedKey) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface BatchCallback<T> {
+        void accept(List<T> chunk) throws SQLException;
+    }
+
+    private static class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final ResultSet resultSet;
+        private final RowMapper<T> rowMapper;
+        private final Function<SQLException, ? extends RuntimeException> exceptionTranslator;
+
+        private ResultSetSpliterator(ResultSet resultSet, RowMapper<T> rowMapper,
+                                     Function<SQLException, ? extends RuntimeException> exceptionTranslator)
+                throws SQLException {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.resultSet = resultSet;
+            this.rowMapper = rowMapper.bind(resultSet.getMetaData());
+            this.exceptionTranslator = exceptionTranslator;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            try {
+                if (!resultSet.next()) {
+                    return false;
+                }
+                action.accept(rowMapper.mapRow(resultSet));
+                return true;
+            } catch (SQLException e) {
+                throw exceptionTranslator.apply(e);
+            }
+        }
+    }
+}
@@ -46,6 +46,22 @@ public class JdbcUtil {
         return String.format("jdbc:postgresql://localhost:5432/%s", databaseName);
     }
 
+    public static PooledDataSource createDefaultPooledInMemoryH2DataSource() {
+        return createPooledDataSource(createDefaultInMemoryH2DataSource(), PoolConfig.defaultConfig());
+    }
+
+    public static PooledDataSource createDefaultPooledPostgresDataSource() {
+        return createPooledDataSource(createDefaultPostgresDataSource(), PoolConfig.defaultConfig());
+    }
+
+    public static PooledDataSource createPooledDataSource(DataSource targetDataSource, PoolConfig poolConfig) {
+        return new PooledDataSource(targetDataSource, poolConfig);
+    }
+
+    public static InstrumentedDataSource createInstrumentedDataSource(DataSource targetDataSource) {
+        return new InstrumentedDataSource(targetDataSource);
+    }
+
     public static Map<String, String> getInMemoryDbPropertiesMap() {
         return Map.of(
                 "url", String.format("jdbc:h2:mem:%s", DEFAULT_DATABASE_NAME),
@@ -0,0 +1,121 @@
+package com.bobocode.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link LatencyHistogram} is a lock-free histogram with fixed, roughly logarithmic buckets (from 100µs up to 10s).
+ * It is cheap enough to be updated on every connection acquire or statement execution.
+ */
+public class LatencyHistogram {
+    private static final long[] BUCKET_UPPER_BOUNDS_MICROS = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 10_000_000, Long.MAX_VALUE
+    };
+
+    private final LongAdder[] bucketCounts = new LongAdder[BUCKET_UPPER_BOUNDS_MICROS.length];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a single measured duration
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = 0;
+        while (micros > BUCKET_UPPER_BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        bucketCounts[bucket].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Returns a point-in-time copy of the histogram
+     *
+     * @return histogram snapshot
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[bucketCounts.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = bucketCounts[i].sum();
+        }
+        return new Snapshot(count.sum(), totalNanos.sum(), maxNanos.get(), counts);
+    }
+
+    public record Snapshot(long count, long totalNanos, long maxNanos, long[] bucketCounts) {
+
+        public long meanNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+
+        /**
+         * Returns an upper bound of the bucket that contains the given percentile. The value is exact up to the
+         * bucket resolution and never exceeds the observed maximum.
+         *
+         * @param percentile a value in range (0, 100]
+         * @return approximate percentile value in nanoseconds
+         */
+        public long percentileNanos(double percentile) {
+            long rank = (long) Math.ceil(count * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= rank && seen > 0) {
+                    long upperBound = BUCKET_UPPER_BOUNDS_MICROS[i] == Long.MAX_VALUE
+                            ? maxNanos : TimeUnit.MICROSECONDS.toNanos(BUCKET_UPPER_BOUNDS_MICROS[i]);
+                    return Math.min(upperBound, maxNanos);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Returns non-empty buckets labeled by their upper bound, e.g. "<=1ms" -> 42
+         *
+         * @return bucket label to count map in ascending bucket order
+         */
+        public Map<String, Long> toMap() {
+            Map<String, Long> buckets = new LinkedHashMap<>();
+            for (int i = 0; i < bucketCounts.length; i++) {
+                if (bucketCounts[i] > 0) {
+                    buckets.put(formatBucketLabel(BUCKET_UPPER_BOUNDS_MICROS[i]), bucketCounts[i]);
+                }
+            }
+            return buckets;
+        }
+
+        private static String formatBucketLabel(long upperBoundMicros) {
+            if (upperBoundMicros == Long.MAX_VALUE) {
+                return ">10s";
+            } else if (upperBoundMicros < 1_000) {
+                return String.format("<=%dus", upperBoundMicros);
+            } else if (upperBoundMicros < 1_000_000) {
+                return String.format("<=%sms", upperBoundMicros / 1_000.0).replace(".0ms", "ms");
+            }
+            return String.format("<=%ds", upperBoundMicros / 1_000_000);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, mean=%dus, p99=%dus, max=%dus, buckets=%s",
+                    count, TimeUnit.NANOSECONDS.toMicros(meanNanos()),
+                    TimeUnit.NANOSECONDS.toMicros(percentileNanos(99)),
+                    TimeUnit.NANOSECONDS.toMicros(maxNanos), toMap());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.bobocode.util;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * {@link PoolConfig} holds settings of {@link PooledDataSource}. Use {@link PoolConfig#builder()} to override
+ * the defaults, e.g. {@code PoolConfig.builder().maxPoolSize(20).build()}.
+ */
+@Getter
+@ToString
+@Builder
+public class PoolConfig {
+    /**
+     * Number of connections the pool keeps open even when they are not used
+     */
+    @Builder.Default
+    private final int minIdle = 2;
+
+    /**
+     * Maximum number of physical connections (idle and in use)
+     */
+    @Builder.Default
+    private final int maxPoolSize = 10;
+
+    /**
+     * How long {@link PooledDataSource#getConnection()} waits for a free connection before failing
+     */
+    @Builder.Default
+    private final Duration acquireTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Idle connections above {@link PoolConfig#minIdle} are closed after staying unused for this period
+     */
+    @Builder.Default
+    private final Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Whether a connection is checked with {@link java.sql.Connection#isValid(int)} before handing it out
+     */
+    @Builder.Default
+    private final boolean validateOnBorrow = true;
+
+    @Builder.Default
+    private final Duration validationTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Borrowed connection that is not returned within this period is reported as a possible leak.
+     * {@link Duration#ZERO} disables leak detection.
+     */
+    @Builder.Default
+    private final Duration leakDetectionThreshold = Duration.ZERO;
+
+    /**
+     * Maximum number of prepared statements cached per physical connection, 0 disables the cache
+     */
+    @Builder.Default
+    private final int statementCacheSize = 32;
+
+    /**
+     * How often idle eviction, min idle top-up and leak detection are performed
+     */
+    @Builder.Default
+    private final Duration housekeepingPeriod = Duration.ofSeconds(30);
+
+    public static PoolConfig defaultConfig() {
+        return PoolConfig.builder().build();
+    }
+
+    void validate() {
+        if (maxPoolSize < 1) {
+            throw new IllegalArgumentException("maxPoolSize must be positive");
+        }
+        if (minIdle < 0 || minIdle > maxPoolSize) {
+            throw new IllegalArgumentException("minIdle must be in range [0, maxPoolSize]");
+        }
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("statementCacheSize must not be negative");
+        }
+        if (acquireTimeout.isNegative() || idleTimeout.isNegative() || leakDetectionThreshold.isNegative()
+                || housekeepingPeriod.isZero() || housekeepingPeriod.isNegative()) {
+            throw new IllegalArgumentException("Pool timeouts must not be negative");
+        }
+    }
+}
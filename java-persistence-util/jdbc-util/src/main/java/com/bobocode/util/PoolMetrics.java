@@ -0,0 +1,30 @@
+package com.bobocode.util;
+
+/**
+ * A point-in-time snapshot of {@link PooledDataSource} state
+ *
+ * @param totalConnections   number of open physical connections
+ * @param activeConnections  number of connections currently borrowed
+ * @param idleConnections    number of connections waiting in the pool
+ * @param waitingThreads     number of threads blocked in {@link PooledDataSource#getConnection()}, waiting either
+ *                           for a permit or for an idle connection
+ * @param createdConnections number of physical connections opened since the pool start
+ * @param closedConnections  number of physical connections closed by eviction, failed validation or pool shutdown
+ * @param acquireTimeouts    number of {@link PooledDataSource#getConnection()} calls that timed out
+ * @param leaksDetected      number of connections reported as possible leaks
+ * @param statementCacheHits   number of prepared statements reused from the per-connection statement caches
+ * @param statementCacheMisses number of prepared statements that had to be prepared by the driver
+ * @param acquireTime        histogram of time spent in {@link PooledDataSource#getConnection()}
+ */
+public record PoolMetrics(int totalConnections,
+                          int activeConnections,
+                          int idleConnections,
+                          int waitingThreads,
+                          long createdConnections,
+                          long closedConnections,
+                          long acquireTimeouts,
+                          long leaksDetected,
+                          long statementCacheHits,
+                          long statementCacheMisses,
+                          LatencyHistogram.Snapshot acquireTime) {
+}
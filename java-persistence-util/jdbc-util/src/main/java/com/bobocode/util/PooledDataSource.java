@@ -0,0 +1,713 @@
+package com.bobocode.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * {@link PooledDataSource} is a bounded connection pool on top of any non-pooled {@link DataSource} (e.g. the ones
+ * created by {@link JdbcUtil}). Physical connections are opened lazily up to {@link PoolConfig#getMaxPoolSize()}
+ * and reused: calling {@link Connection#close()} on a borrowed connection returns it to the pool instead of closing
+ * the socket, so the client code does not need to change.
+ * <p>
+ * A background housekeeper closes connections that stayed idle longer than {@link PoolConfig#getIdleTimeout()},
+ * keeps at least {@link PoolConfig#getMinIdle()} connections open and reports connections that are borrowed for
+ * longer than {@link PoolConfig#getLeakDetectionThreshold()}.
+ * <p>
+ * Each physical connection has its own {@link StatementCache}: {@link Connection#prepareStatement(String)} returns
+ * a statement prepared earlier on the same physical connection if it is available, and closing the statement puts
+ * it back to the cache.
+ */
+@Slf4j
+public class PooledDataSource implements DataSource, AutoCloseable {
+    private final DataSource targetDataSource;
+    private final PoolConfig config;
+
+    private final Semaphore borrowPermits;
+    private final BlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger idleConnectionWaiters = new AtomicInteger();
+    private final AtomicLong poolChanges = new AtomicLong();
+    private final Lock poolChangeLock = new ReentrantLock();
+    private final Condition poolChanged = poolChangeLock.newCondition();
+
+    private final LatencyHistogram acquireTimeHistogram = new LatencyHistogram();
+    private final LongAdder createdConnections = new LongAdder();
+    private final LongAdder closedConnections = new LongAdder();
+    private final LongAdder acquireTimeouts = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public PooledDataSource(DataSource targetDataSource, PoolConfig config) {
+        config.validate();
+        this.targetDataSource = targetDataSource;
+        this.config = config;
+        this.borrowPermits = new Semaphore(config.getMaxPoolSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jdbc-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = config.getHousekeepingPeriod().toMillis();
+        housekeeper.scheduleWithFixedDelay(this::performHousekeeping, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        fillMinIdle();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long startNanos = System.nanoTime();
+        long timeoutNanos = config.getAcquireTimeout().toNanos();
+        try {
+            if (!borrowPermits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw acquireTimeoutException();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        try {
+            PooledConnection pooledConnection = takeValidConnection(startNanos + timeoutNanos);
+            pooledConnection.markBorrowed();
+            borrowedConnections.add(pooledConnection);
+            acquireTimeHistogram.record(System.nanoTime() - startNanos);
+            return pooledConnection.createLogicalConnection();
+        } catch (SQLException | RuntimeException e) {
+            borrowPermits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * The borrower holds a permit, but all the slots may be taken by connections that are just being returned or
+     * topped up by the housekeeper, or closed by it. So whenever neither an idle connection nor a free slot is
+     * available, it waits until a connection is returned or destroyed and tries both again.
+     */
+    private PooledConnection takeValidConnection(long deadlineNanos) throws SQLException {
+        while (true) {
+            if (closed) {
+                throw new SQLException("Connection pool is closed");
+            }
+            long observedPoolChanges = poolChanges.get();
+            PooledConnection pooledConnection = idleConnections.pollFirst();
+            if (pooledConnection != null) {
+                if (isValid(pooledConnection)) {
+                    return pooledConnection;
+                }
+                destroy(pooledConnection);
+            } else if (tryReserveSlot()) {
+                return openConnection();
+            } else {
+                awaitPoolChange(observedPoolChanges, deadlineNanos);
+            }
+        }
+    }
+
+    private void awaitPoolChange(long observedPoolChanges, long deadlineNanos) throws SQLException {
+        idleConnectionWaiters.incrementAndGet();
+        poolChangeLock.lock();
+        try {
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            while (poolChanges.get() == observedPoolChanges) {
+                if (remainingNanos <= 0) {
+                    throw acquireTimeoutException();
+                }
+                remainingNanos = poolChanged.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        } finally {
+            poolChangeLock.unlock();
+            idleConnectionWaiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Wakes up the borrowers waiting for an idle connection or a free slot. The change counter is bumped before the
+     * waiters are checked, so a borrower that starts waiting concurrently sees the change and does not block.
+     */
+    private void signalPoolChange() {
+        poolChanges.incrementAndGet();
+        if (idleConnectionWaiters.get() > 0) {
+            poolChangeLock.lock();
+            try {
+                poolChanged.signalAll();
+            } finally {
+                poolChangeLock.unlock();
+            }
+        }
+    }
+
+    private SQLTimeoutException acquireTimeoutException() {
+        acquireTimeouts.increment();
+        return new SQLTimeoutException(String.format("Cannot acquire a connection within %d ms (total=%d, active=%d)",
+                config.getAcquireTimeout().toMillis(), totalConnections.get(), borrowedConnections.size()));
+    }
+
+    private boolean tryReserveSlot() {
+        int total;
+        do {
+            total = totalConnections.get();
+            if (total >= config.getMaxPoolSize()) {
+                return false;
+            }
+        } while (!totalConnections.compareAndSet(total, total + 1));
+        return true;
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection physicalConnection;
+        try {
+            physicalConnection = targetDataSource.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            signalPoolChange();
+            throw e;
+        }
+        createdConnections.increment();
+        try {
+            return new PooledConnection(physicalConnection, physicalConnection.isReadOnly(),
+                    physicalConnection.getTransactionIsolation());
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            closedConnections.increment();
+            signalPoolChange();
+            physicalConnection.close();
+            throw e;
+        }
+    }
+
+    private boolean isValid(PooledConnection pooledConnection) {
+        if (!config.isValidateOnBorrow()) {
+            return true;
+        }
+        try {
+            return pooledConnection.physicalConnection.isValid((int) config.getValidationTimeout().toSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooledConnection) {
+        borrowedConnections.remove(pooledConnection);
+        try {
+            if (closed || !resetState(pooledConnection)) {
+                destroy(pooledConnection);
+            } else {
+                pooledConnection.lastReturnedNanos = System.nanoTime();
+                idleConnections.offerFirst(pooledConnection);
+                signalPoolChange();
+            }
+        } finally {
+            borrowPermits.release();
+        }
+    }
+
+    /**
+     * Rolls back a transaction left open by the client and restores auto-commit, read-only mode and transaction
+     * isolation, so the next borrower gets a connection in the same state as a fresh one.
+     */
+    private boolean resetState(PooledConnection pooledConnection) {
+        Connection physicalConnection = pooledConnection.physicalConnection;
+        try {
+            if (physicalConnection.isClosed()) {
+                return false;
+            }
+            if (!physicalConnection.getAutoCommit()) {
+                physicalConnection.rollback();
+                physicalConnection.setAutoCommit(true);
+            }
+            if (physicalConnection.isReadOnly() != pooledConnection.initialReadOnly) {
+                physicalConnection.setReadOnly(pooledConnection.initialReadOnly);
+            }
+            if (physicalConnection.getTransactionIsolation() != pooledConnection.initialTransactionIsolation) {
+                physicalConnection.setTransactionIsolation(pooledConnection.initialTransactionIsolation);
+            }
+            return true;
+        } catch (SQLException e) {
+            log.warn("Cannot reset pooled connection state, closing the connection", e);
+            return false;
+        }
+    }
+
+    /**
+     * Closes the physical connection and only then frees its slot, so the pool never has more than
+     * {@link PoolConfig#getMaxPoolSize()} physical connections open
+     */
+    private void destroy(PooledConnection pooledConnection) {
+        pooledConnection.statementCache.close();
+        try {
+            pooledConnection.physicalConnection.close();
+        } catch (SQLException e) {
+            log.debug("Error closing physical connection", e);
+        } finally {
+            totalConnections.decrementAndGet();
+            closedConnections.increment();
+            signalPoolChange();
+        }
+    }
+
+    private void performHousekeeping() {
+        try {
+            evictIdleConnections();
+            fillMinIdle();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            log.warn("Connection pool housekeeping failed", e);
+        }
+    }
+
+    private void evictIdleConnections() {
+        long idleTimeoutNanos = config.getIdleTimeout().toNanos();
+        if (idleTimeoutNanos == 0) {
+            return;
+        }
+        // the least recently used connections are at the tail of the deque
+        PooledConnection candidate;
+        while (totalConnections.get() > config.getMinIdle() && (candidate = idleConnections.peekLast()) != null
+                && System.nanoTime() - candidate.lastReturnedNanos > idleTimeoutNanos) {
+            if (idleConnections.removeLastOccurrence(candidate)) {
+                destroy(candidate);
+            }
+        }
+    }
+
+    private void fillMinIdle() {
+        while (!closed && totalConnections.get() < config.getMinIdle() && tryReserveSlot()) {
+            try {
+                PooledConnection pooledConnection = openConnection();
+                pooledConnection.lastReturnedNanos = System.nanoTime();
+                idleConnections.offerLast(pooledConnection);
+                signalPoolChange();
+            } catch (SQLException e) {
+                log.warn("Cannot open a connection to keep min idle connections", e);
+                return;
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        long thresholdNanos = config.getLeakDetectionThreshold().toNanos();
+        if (thresholdNanos == 0) {
+            return;
+        }
+        for (PooledConnection pooledConnection : borrowedConnections) {
+            if (!pooledConnection.leakReported
+                    && System.nanoTime() - pooledConnection.borrowedAtNanos > thresholdNanos) {
+                pooledConnection.leakReported = true;
+                leaksDetected.increment();
+                log.warn("Connection has been borrowed for more than {} ms, possible connection leak",
+                        config.getLeakDetectionThreshold().toMillis(), pooledConnection.borrowStackTrace);
+            }
+        }
+    }
+
+    /**
+     * Returns current pool state and acquire time statistics
+     *
+     * @return metrics snapshot
+     */
+    public PoolMetrics getMetrics() {
+        return new PoolMetrics(
+                totalConnections.get(),
+                borrowedConnections.size(),
+                idleConnections.size(),
+                borrowPermits.getQueueLength() + idleConnectionWaiters.get(),
+                createdConnections.sum(),
+                closedConnections.sum(),
+                acquireTimeouts.sum(),
+                leaksDetected.sum(),
+                statementCacheHits.sum(),
+                statementCacheMisses.sum(),
+                acquireTimeHistogram.snapshot()
+        );
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeper. Borrowed connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idleConnections.pollFirst()) != null) {
+            destroy(pooledConnection);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections use credentials of the target DataSource");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return targetDataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        targetDataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        targetDataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return targetDataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return targetDataSource.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : targetDataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || targetDataSource.isWrapperFor(iface);
+    }
+
+    /**
+     * A physical connection owned by the pool. Each borrowing gets its own logical connection proxy, so a client
+     * that keeps a reference after {@link Connection#close()} cannot affect the next borrower.
+     */
+    private class PooledConnection {
+        private final Connection physicalConnection;
+        private final StatementCache statementCache;
+        private final boolean initialReadOnly;
+        private final int initialTransactionIsolation;
+        private volatile long lastReturnedNanos;
+        private volatile long borrowedAtNanos;
+        private volatile boolean leakReported;
+        private volatile Exception borrowStackTrace;
+
+        private PooledConnection(Connection physicalConnection, boolean initialReadOnly, int initialTransactionIsolation) {
+            this.physicalConnection = physicalConnection;
+            this.initialReadOnly = initialReadOnly;
+            this.initialTransactionIsolation = initialTransactionIsolation;
+            this.statementCache = new StatementCache(
+                    config.getStatementCacheSize(), statementCacheHits, statementCacheMisses);
+        }
+
+        private void markBorrowed() {
+            borrowedAtNanos = System.nanoTime();
+            leakReported = false;
+            if (!config.getLeakDetectionThreshold().isZero()) {
+                borrowStackTrace = new Exception("Connection borrowed here");
+            }
+        }
+
+        private Connection createLogicalConnection() {
+            return (Connection) Proxy.newProxyInstance(
+                    PooledDataSource.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LogicalConnectionHandler(this)
+            );
+        }
+    }
+
+    private class LogicalConnectionHandler implements InvocationHandler {
+        private final PooledConnection pooledConnection;
+        private final Set<Statement> openStatements = Collections.newSetFromMap(new IdentityHashMap<>());
+        private boolean logicallyClosed;
+
+        private LogicalConnectionHandler(PooledConnection pooledConnection) {
+            this.pooledConnection = pooledConnection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!logicallyClosed) {
+                        logicallyClosed = true;
+                        closeOpenStatements();
+                        release(pooledConnection);
+                    }
+                    return null;
+                case "isClosed":
+                    return logicallyClosed || pooledConnection.physicalConnection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooledConnection.physicalConnection;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (logicallyClosed) {
+                throw new SQLException("Connection is closed");
+            }
+            StatementCache.Key statementKey = resolveStatementKey(method, args);
+            if (statementKey != null) {
+                return prepareCachedStatement((Connection) proxy, statementKey);
+            }
+            Object result = invokeOnTarget(pooledConnection.physicalConnection, method, args);
+            if (result instanceof Statement physicalStatement) {
+                return register(method.getReturnType(),
+                        new StatementHandler(physicalStatement, (Connection) proxy, openStatements));
+            }
+            return result;
+        }
+
+        private PreparedStatement prepareCachedStatement(Connection logicalConnection, StatementCache.Key key)
+                throws SQLException {
+            PreparedStatement physicalStatement = pooledConnection.statementCache.take(key);
+            if (physicalStatement == null) {
+                physicalStatement = prepareStatement(key);
+            }
+            return (PreparedStatement) register(PreparedStatement.class, new CachedStatementHandler(
+                    pooledConnection.statementCache, key, physicalStatement, logicalConnection, openStatements));
+        }
+
+        private Statement register(Class<?> statementType, StatementHandler handler) {
+            Statement statement = (Statement) Proxy.newProxyInstance(
+                    PooledDataSource.class.getClassLoader(),
+                    new Class<?>[]{statementType},
+                    handler
+            );
+            openStatements.add(statement);
+            return statement;
+        }
+
+        private PreparedStatement prepareStatement(StatementCache.Key key) throws SQLException {
+            Connection physicalConnection = pooledConnection.physicalConnection;
+            if (key.autoGeneratedKeys() != Statement.NO_GENERATED_KEYS) {
+                return physicalConnection.prepareStatement(key.sql(), key.autoGeneratedKeys());
+            }
+            return physicalConnection.prepareStatement(key.sql(), key.resultSetType(), key.resultSetConcurrency());
+        }
+
+        private void closeOpenStatements() {
+            for (Statement statement : List.copyOf(openStatements)) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    log.debug("Error closing statement left open by the client", e);
+                }
+            }
+            openStatements.clear();
+        }
+    }
+
+    /**
+     * Only the plain prepareStatement variants are cached, statements with column indexes/names or holdability
+     * are prepared on the physical connection as usual.
+     */
+    private static StatementCache.Key resolveStatementKey(Method method, Object[] args) {
+        if (!method.getName().equals("prepareStatement")) {
+            return null;
+        }
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        String sql = (String) args[0];
+        if (parameterTypes.length == 1) {
+            return new StatementCache.Key(sql, Statement.NO_GENERATED_KEYS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        } else if (parameterTypes.length == 2 && parameterTypes[1] == int.class) {
+            return new StatementCache.Key(sql, (int) args[1], ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        } else if (parameterTypes.length == 3) {
+            return new StatementCache.Key(sql, Statement.NO_GENERATED_KEYS, (int) args[1], (int) args[2]);
+        }
+        return null;
+    }
+
+    private static Object invokeOnTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A logical view of a statement handed out by a logical connection. It returns the logical connection from
+     * {@link Statement#getConnection()}, so the client cannot reach the physical one. The statement is forgotten by
+     * the connection as soon as it is closed, so a connection held for a long transaction does not keep closed
+     * statements reachable. Result sets are not wrapped, because every row access would go through the proxy; closed
+     * ones are dropped when the statement opens the next one, and the open ones are closed with the statement.
+     */
+    private static class StatementHandler implements InvocationHandler {
+        protected final Statement physicalStatement;
+        private final Connection logicalConnection;
+        private final Set<Statement> openStatements;
+        private final Set<ResultSet> openResultSets = Collections.newSetFromMap(new IdentityHashMap<>());
+        private boolean logicallyClosed;
+
+        private StatementHandler(Statement physicalStatement, Connection logicalConnection,
+                                 Set<Statement> openStatements) {
+            this.physicalStatement = physicalStatement;
+            this.logicalConnection = logicalConnection;
+            this.openStatements = openStatements;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            switch (methodName) {
+                case "close":
+                    if (!logicallyClosed) {
+                        logicallyClosed = true;
+                        openStatements.remove(proxy);
+                        closeOpenResultSets();
+                        closePhysicalStatement();
+                    }
+                    return null;
+                case "isClosed":
+                    return logicallyClosed || physicalStatement.isClosed();
+                case "getConnection":
+                    return logicalConnection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Logical" + physicalStatement;
+                default:
+                    break;
+            }
+            if (logicallyClosed) {
+                throw new SQLException("Statement is closed");
+            }
+            beforeInvoke(methodName);
+            Object result = invokeOnTarget(physicalStatement, method, args);
+            if (result instanceof ResultSet resultSet) {
+                forgetClosedResultSets();
+                openResultSets.add(resultSet);
+            }
+            return result;
+        }
+
+        protected void beforeInvoke(String methodName) {
+        }
+
+        protected void closePhysicalStatement() throws SQLException {
+            physicalStatement.close();
+        }
+
+        private void forgetClosedResultSets() throws SQLException {
+            Iterator<ResultSet> iterator = openResultSets.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isClosed()) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        private void closeOpenResultSets() throws SQLException {
+            for (ResultSet resultSet : openResultSets) {
+                resultSet.close();
+            }
+            openResultSets.clear();
+        }
+    }
+
+    /**
+     * A logical view of a cached statement. Closing it clears parameters and puts the physical statement back to
+     * the cache. A statement whose settings were changed (e.g. fetch size) is closed instead, so the next user always
+     * gets a statement with default settings.
+     */
+    private static class CachedStatementHandler extends StatementHandler {
+        private static final Set<String> STATEMENT_SETTINGS = Set.of("setFetchSize", "setFetchDirection",
+                "setMaxRows", "setMaxFieldSize", "setQueryTimeout", "setLargeMaxRows", "setEscapeProcessing",
+                "setPoolable", "setCursorName", "closeOnCompletion");
+
+        private final StatementCache statementCache;
+        private final StatementCache.Key key;
+        private boolean settingsChanged;
+
+        private CachedStatementHandler(StatementCache statementCache, StatementCache.Key key,
+                                       PreparedStatement physicalStatement, Connection logicalConnection,
+                                       Set<Statement> openStatements) {
+            super(physicalStatement, logicalConnection, openStatements);
+            this.statementCache = statementCache;
+            this.key = key;
+        }
+
+        @Override
+        protected void beforeInvoke(String methodName) {
+            if (STATEMENT_SETTINGS.contains(methodName)) {
+                settingsChanged = true;
+            }
+        }
+
+        @Override
+        protected void closePhysicalStatement() throws SQLException {
+            PreparedStatement preparedStatement = (PreparedStatement) physicalStatement;
+            try {
+                if (settingsChanged || preparedStatement.isClosed()) {
+                    preparedStatement.close();
+                    return;
+                }
+                preparedStatement.clearParameters();
+                preparedStatement.clearBatch();
+                statementCache.put(key, preparedStatement);
+            } catch (SQLException e) {
+                preparedStatement.close();
+                throw e;
+            }
+        }
+    }
+}
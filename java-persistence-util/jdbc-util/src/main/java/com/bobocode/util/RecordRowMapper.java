@@ -0,0 +1,110 @@
+package com.bobocode.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RecordRowMapper} maps rows to a record whose components are named after the columns: a camelCase component
+ * reads the snake_case column, e.g. {@code expirationDate} reads {@code expiration_date}. Values are read with
+ * {@link ResultSet#getObject(int, Class)} of the component type (boxed for primitives), so the driver converts them
+ * without intermediate objects. A primitive component cannot receive SQL NULL.
+ * <p>
+ * The record constructor is resolved once per record class, {@link RecordRowMapper#of(Class)} returns a cached
+ * instance.
+ *
+ * @param <R> record type
+ */
+public class RecordRowMapper<R extends Record> implements RowMapper<R> {
+    private static final Map<Class<?>, RecordRowMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Class<?>> BOXED_TYPES = Map.of(
+            boolean.class, Boolean.class,
+            byte.class, Byte.class,
+            short.class, Short.class,
+            int.class, Integer.class,
+            long.class, Long.class,
+            float.class, Float.class,
+            double.class, Double.class
+    );
+
+    private final List<String> columns;
+    private final Class<?>[] valueTypes;
+    private final MethodHandle constructor;
+
+    private RecordRowMapper(Class<R> recordType) {
+        RecordComponent[] components = recordType.getRecordComponents();
+        if (components.length == 0) {
+            throw new IllegalArgumentException(String.format("Record %s has no components", recordType.getName()));
+        }
+        Class<?>[] componentTypes = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+        this.columns = Arrays.stream(components).map(component -> toColumnName(component.getName())).toList();
+        this.valueTypes = Arrays.stream(componentTypes).map(type -> BOXED_TYPES.getOrDefault(type, type)).toArray(Class<?>[]::new);
+        try {
+            Constructor<R> canonicalConstructor = recordType.getDeclaredConstructor(componentTypes);
+            canonicalConstructor.setAccessible(true);
+            this.constructor = MethodHandles.lookup()
+                    .unreflectConstructor(canonicalConstructor)
+                    .asSpreader(Object[].class, componentTypes.length);
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException(
+                    String.format("Cannot access canonical constructor of %s", recordType.getName()), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <R extends Record> RecordRowMapper<R> of(Class<R> recordType) {
+        return (RecordRowMapper<R>) MAPPERS.computeIfAbsent(recordType, type -> new RecordRowMapper<>(recordType));
+    }
+
+    /**
+     * @return snake_case column names in the order of the record components
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    static String toColumnName(String componentName) {
+        return componentName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public R mapRow(ResultSet resultSet) throws SQLException {
+        return bind(resultSet.getMetaData()).mapRow(resultSet);
+    }
+
+    @Override
+    public RowMapper<R> bind(ResultSetMetaData metaData) throws SQLException {
+        ColumnIndexes columnIndexes = ColumnIndexes.of(metaData);
+        int[] indexes = new int[columns.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = columnIndexes.indexOf(columns.get(i));
+        }
+        return resultSet -> {
+            Object[] values = new Object[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                values[i] = resultSet.getObject(indexes[i], valueTypes[i]);
+            }
+            return newRecord(values);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private R newRecord(Object[] values) throws SQLException {
+        try {
+            return (R) constructor.invoke(values);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new SQLException("Cannot create record from row", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.bobocode.util;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * {@link RowMapper} converts the current row of a {@link ResultSet} into an object.
+ * <p>
+ * Mapping by column label makes the driver look the label up on every row. A mapper that needs column positions
+ * can resolve them once per result set in {@link RowMapper#bind(ResultSetMetaData)}, which is called before the
+ * first row is read. Simple mappers that read columns by index, e.g. {@code resultSet -> resultSet.getLong(1)},
+ * do not need to override it.
+ *
+ * @param <T> type of the mapped object
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the current row. Must not move the cursor.
+     *
+     * @param resultSet result set positioned on a row
+     * @return mapped object
+     * @throws SQLException in case of database errors
+     */
+    T mapRow(ResultSet resultSet) throws SQLException;
+
+    /**
+     * Returns a mapper bound to the structure of a particular result set. The returned mapper must be used only for
+     * the result set that it was bound to.
+     *
+     * @param metaData metadata of the result set that is going to be mapped
+     * @return mapper to be used for every row of the result set
+     * @throws SQLException in case of database errors
+     */
+    default RowMapper<T> bind(ResultSetMetaData metaData) throws SQLException {
+        return this;
+    }
+}
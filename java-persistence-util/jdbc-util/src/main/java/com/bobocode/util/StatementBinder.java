@@ -0,0 +1,15 @@
+package com.bobocode.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Sets parameters of a {@link PreparedStatement} executed by {@link JdbcTemplate}
+ */
+@FunctionalInterface
+public interface StatementBinder {
+    StatementBinder NO_PARAMETERS = preparedStatement -> {
+    };
+
+    void bind(PreparedStatement preparedStatement) throws SQLException;
+}
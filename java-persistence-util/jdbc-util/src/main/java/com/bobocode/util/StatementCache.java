@@ -0,0 +1,101 @@
+package com.bobocode.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link StatementCache} keeps prepared statements of a single physical connection, so the same SQL is parsed once
+ * per connection instead of once per DAO call. The cache is LRU-bounded: when it is full, the least recently used
+ * statement is closed.
+ * <p>
+ * A statement is taken out of the cache while it is in use and put back when the client closes it, so two callers
+ * never share one statement.
+ */
+@Slf4j
+class StatementCache {
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final Map<Key, PreparedStatement> statements;
+    private boolean closed;
+
+    StatementCache(int maxSize, LongAdder hits, LongAdder misses) {
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Removes a statement from the cache and counts a hit or a miss
+     *
+     * @param key statement key
+     * @return cached statement or {@code null} if the statement should be prepared
+     */
+    synchronized PreparedStatement take(Key key) {
+        PreparedStatement statement = statements.remove(key);
+        if (statement == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return statement;
+    }
+
+    /**
+     * Puts a statement that is no longer used back to the cache, closes the evicted one if the cache is full
+     *
+     * @param key       statement key
+     * @param statement statement with cleared parameters
+     */
+    void put(Key key, PreparedStatement statement) {
+        List<PreparedStatement> statementsToClose = new ArrayList<>(1);
+        synchronized (this) {
+            if (closed || maxSize == 0) {
+                statementsToClose.add(statement);
+            } else {
+                PreparedStatement previous = statements.put(key, statement);
+                if (previous != null) {
+                    statementsToClose.add(previous);
+                }
+                var iterator = statements.values().iterator();
+                while (statements.size() > maxSize) {
+                    statementsToClose.add(iterator.next());
+                    iterator.remove();
+                }
+            }
+        }
+        statementsToClose.forEach(StatementCache::closeQuietly);
+    }
+
+    void close() {
+        List<PreparedStatement> statementsToClose;
+        synchronized (this) {
+            closed = true;
+            statementsToClose = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+        statementsToClose.forEach(StatementCache::closeQuietly);
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.debug("Error closing cached statement", e);
+        }
+    }
+
+    /**
+     * Identifies a prepared statement by SQL and the options that it was prepared with
+     */
+    record Key(String sql, int autoGeneratedKeys, int resultSetType, int resultSetConcurrency) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.bobocode.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point-in-time snapshot of the executions of one SQL statement recorded by {@link InstrumentedDataSource}
+ *
+ * @param sql           statement text
+ * @param executions    number of execute calls, a batch is counted once
+ * @param errors        number of execute calls that threw an exception
+ * @param rowsFetched   number of rows read from the result sets of the statement
+ * @param rowsUpdated   sum of the update counts returned by the driver (unknown counts are not included)
+ * @param batches       number of executed batches
+ * @param batchedRows   number of parameter sets added to the executed batches
+ * @param executionTime histogram of time spent in the execute calls
+ */
+public record StatementMetrics(String sql,
+                               long executions,
+                               long errors,
+                               long rowsFetched,
+                               long rowsUpdated,
+                               long batches,
+                               long batchedRows,
+                               LatencyHistogram.Snapshot executionTime) {
+
+    public double averageBatchSize() {
+        return batches == 0 ? 0 : (double) batchedRows / batches;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("executions=%d, errors=%d, total=%dms, mean=%dus, p99=%dus, max=%dus, rowsFetched=%d, "
+                        + "rowsUpdated=%d, batches=%d, averageBatchSize=%.1f: %s",
+                executions, errors, TimeUnit.NANOSECONDS.toMillis(executionTime.totalNanos()),
+                TimeUnit.NANOSECONDS.toMicros(executionTime.meanNanos()),
+                TimeUnit.NANOSECONDS.toMicros(executionTime.percentileNanos(99)),
+                TimeUnit.NANOSECONDS.toMicros(executionTime.maxNanos()),
+                rowsFetched, rowsUpdated, batches, averageBatchSize(), sql);
+    }
+}
@@ -0,0 +1,74 @@
+package com.bobocode.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@link TableMapping} describes how objects are written to the columns of a table: every column has a function
+ * that extracts its value from the object. It is used by {@link BulkLoader} to build both the {@code COPY} payload
+ * and the fallback {@code INSERT} statement.
+ *
+ * @param <T> object type
+ */
+public final class TableMapping<T> {
+    private final String tableName;
+    private final List<String> columns;
+    private final List<Function<T, ?>> valueExtractors;
+
+    private TableMapping(String tableName, List<String> columns, List<Function<T, ?>> valueExtractors) {
+        this.tableName = tableName;
+        this.columns = List.copyOf(columns);
+        this.valueExtractors = List.copyOf(valueExtractors);
+    }
+
+    public static <T> Builder<T> builder(String tableName) {
+        return new Builder<>(tableName);
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Extracts the column values of an object in column order. Enums are converted to their names.
+     *
+     * @param row object to write
+     * @return column values, {@code null} for SQL NULL
+     */
+    public Object[] getValues(T row) {
+        Object[] values = new Object[valueExtractors.size()];
+        for (int i = 0; i < values.length; i++) {
+            Object value = valueExtractors.get(i).apply(row);
+            values[i] = value instanceof Enum<?> enumValue ? enumValue.name() : value;
+        }
+        return values;
+    }
+
+    public static final class Builder<T> {
+        private final String tableName;
+        private final List<String> columns = new ArrayList<>();
+        private final List<Function<T, ?>> valueExtractors = new ArrayList<>();
+
+        private Builder(String tableName) {
+            this.tableName = tableName;
+        }
+
+        public Builder<T> column(String column, Function<T, ?> valueExtractor) {
+            columns.add(column);
+            valueExtractors.add(valueExtractor);
+            return this;
+        }
+
+        public TableMapping<T> build() {
+            if (columns.isEmpty()) {
+                throw new IllegalArgumentException("Table mapping must have at least one column");
+            }
+            return new TableMapping<>(tableName, columns, valueExtractors);
+        }
+    }
+}
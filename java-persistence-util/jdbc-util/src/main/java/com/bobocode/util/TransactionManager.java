@@ -0,0 +1,131 @@
+package com.bobocode.util;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * {@link TransactionManager} binds one connection to the current thread for the duration of a transaction.
+ * Every {@link JdbcTemplate} created with the same manager uses the bound connection, so several DAO calls made
+ * within {@link TransactionManager#inTransaction(TransactionCallback)} share one connection and one commit.
+ * Outside of a transaction each call gets its own connection in auto-commit mode.
+ */
+public class TransactionManager {
+    private final DataSource dataSource;
+    private final ThreadLocal<Connection> boundConnection = new ThreadLocal<>();
+
+    public TransactionManager(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Performs the callback in a transaction and commits it, or rolls it back if the callback throws an exception.
+     * If a transaction is already active in the current thread, the callback joins it.
+     *
+     * @param callback transactional logic
+     * @param <T>      result type
+     * @return callback result
+     * @throws SQLException in case of database errors
+     */
+    public <T> T inTransaction(TransactionCallback<T> callback) throws SQLException {
+        if (isTransactionActive()) {
+            return callback.doInTransaction();
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            boundConnection.set(connection);
+            try {
+                T result = callback.doInTransaction();
+                connection.commit();
+                return result;
+            } catch (Throwable e) {
+                rollback(connection, e);
+                throw e;
+            } finally {
+                boundConnection.remove();
+                restoreAutoCommit(connection);
+            }
+        }
+    }
+
+    private static void rollback(Connection connection, Throwable cause) {
+        try {
+            connection.rollback();
+        } catch (SQLException rollbackException) {
+            cause.addSuppressed(rollbackException);
+        }
+    }
+
+    private static void restoreAutoCommit(Connection connection) {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException ignored) {
+            // the connection is closed right after this call anyway
+        }
+    }
+
+    public boolean isTransactionActive() {
+        return boundConnection.get() != null;
+    }
+
+    /**
+     * Performs the callback with the connection bound to the current transaction, or with a new connection that is
+     * closed right after the callback if there is no active transaction.
+     *
+     * @param callback logic that uses the connection, it must not close it
+     * @param <T>      result type
+     * @return callback result
+     * @throws SQLException in case of database errors
+     */
+    public <T> T execute(ConnectionCallback<T> callback) throws SQLException {
+        Connection connection = boundConnection.get();
+        if (connection != null) {
+            return callback.doInConnection(connection);
+        }
+        try (Connection newConnection = dataSource.getConnection()) {
+            return callback.doInConnection(newConnection);
+        }
+    }
+
+    /**
+     * Returns the connection bound to the current transaction or opens a new one. A connection obtained this way
+     * must be released with {@link TransactionManager#releaseConnection(Connection)}.
+     *
+     * @return connection
+     * @throws SQLException in case of database errors
+     */
+    public Connection getConnection() throws SQLException {
+        Connection connection = boundConnection.get();
+        return connection != null ? connection : dataSource.getConnection();
+    }
+
+    /**
+     * Closes the connection unless it is bound to the current transaction
+     *
+     * @param connection connection obtained via {@link TransactionManager#getConnection()}
+     * @throws SQLException in case of database errors
+     */
+    public void releaseConnection(Connection connection) throws SQLException {
+        if (connection != boundConnection.get()) {
+            connection.close();
+        }
+    }
+
+    public boolean isBound(Connection connection) {
+        return connection == boundConnection.get();
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    @FunctionalInterface
+    public interface TransactionCallback<T> {
+        T doInTransaction() throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface ConnectionCallback<T> {
+        T doInConnection(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,87 @@
+package com.bobocode.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class BulkLoaderTest {
+    private static final TableMapping<Item> ITEMS = TableMapping.<Item>builder("items")
+            .column("name", Item::name)
+            .column("price", Item::price)
+            .column("created", Item::created)
+            .build();
+
+    @Test
+    @DisplayName("CSV rows quote values, escape quotes and leave NULL empty")
+    void appendCsvRow() {
+        StringBuilder buffer = new StringBuilder();
+
+        BulkLoader.appendCsvRow(buffer, new Object[]{"say \"hi\", ok", null, "", new BigDecimal("1E+2"), LocalDate.of(2020, 1, 2)});
+
+        assertThat(buffer).hasToString("\"say \"\"hi\"\", ok\",,\"\",\"100\",\"2020-01-02\"\n");
+    }
+
+    @Test
+    @DisplayName("load falls back to batched inserts on H2 and loads the rows lazily")
+    void loadWithBatchInserts() throws SQLException {
+        DataSource dataSource = createDataSourceWithItemsTable("bulk_loader_test");
+
+        BulkLoadResult result = new BulkLoader<>(dataSource, ITEMS, 4)
+                .load(IntStream.range(0, 10).mapToObj(BulkLoaderTest::item).iterator());
+
+        assertThat(result.rows()).isEqualTo(10);
+        assertThat(result.method()).isEqualTo(BulkLoadResult.Method.BATCH_INSERT);
+        assertThat(result.rowsPerSecond()).isPositive();
+        assertThat(countItems(dataSource)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("load rolls back all the rows when one of them fails")
+    void loadRollsBack() throws SQLException {
+        DataSource dataSource = createDataSourceWithItemsTable("bulk_loader_rollback_test");
+        List<Item> items = List.of(item(1), item(2), new Item(null, BigDecimal.ONE, LocalDate.now()));
+
+        assertThatExceptionOfType(SQLException.class)
+                .isThrownBy(() -> new BulkLoader<>(dataSource, ITEMS, 2).load(items));
+
+        assertThat(countItems(dataSource)).isZero();
+    }
+
+    private static Item item(int index) {
+        return new Item("item" + index, BigDecimal.valueOf(index), LocalDate.now());
+    }
+
+    private static DataSource createDataSourceWithItemsTable(String databaseName) throws SQLException {
+        DataSource dataSource = JdbcUtil.createInMemoryH2DataSource(
+                String.format("jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1", databaseName), "sa", "");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE items (name VARCHAR(255) NOT NULL, price DECIMAL(19, 4), created DATE)");
+        }
+        return dataSource;
+    }
+
+    private static long countItems(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM items")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private record Item(String name, BigDecimal price, LocalDate created) {
+    }
+}
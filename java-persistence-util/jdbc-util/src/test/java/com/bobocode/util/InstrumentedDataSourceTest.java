@@ -0,0 +1,123 @@
+package com.bobocode.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class InstrumentedDataSourceTest {
+    private static final String SQL_INSERT = "INSERT INTO items (name) VALUES (?)";
+    private static final String SQL_SELECT_NAMES = "SELECT name FROM items";
+
+    private PooledDataSource pooledDataSource;
+    private InstrumentedDataSource dataSource;
+
+    @BeforeEach
+    void init() throws SQLException {
+        pooledDataSource = JdbcUtil.createPooledDataSource(JdbcUtil.createInMemoryH2DataSource(
+                "jdbc:h2:mem:instrumented_data_source_test;DB_CLOSE_DELAY=-1", "sa", ""), PoolConfig.defaultConfig());
+        dataSource = JdbcUtil.createInstrumentedDataSource(pooledDataSource);
+        execute("CREATE TABLE items (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255) NOT NULL)");
+        dataSource.reset();
+    }
+
+    @AfterEach
+    void dropTable() throws Exception {
+        execute("DROP TABLE items");
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("executions, batch sizes and fetched rows are recorded per statement")
+    void statementMetrics() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(SQL_INSERT)) {
+            for (int i = 0; i < 5; i++) {
+                insert.setString(1, "item " + i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            insert.setString(1, "single item");
+            insert.executeUpdate();
+        }
+        for (int i = 0; i < 2; i++) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement select = connection.prepareStatement(SQL_SELECT_NAMES);
+                 ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    assertThat(resultSet.getStatement()).isSameAs(select);
+                }
+            }
+        }
+
+        StatementMetrics insertMetrics = findMetrics(SQL_INSERT);
+        assertThat(insertMetrics.executions()).isEqualTo(2);
+        assertThat(insertMetrics.batches()).isEqualTo(1);
+        assertThat(insertMetrics.averageBatchSize()).isEqualTo(5);
+        assertThat(insertMetrics.rowsUpdated()).isEqualTo(6);
+        StatementMetrics selectMetrics = findMetrics(SQL_SELECT_NAMES);
+        assertThat(selectMetrics.executions()).isEqualTo(2);
+        assertThat(selectMetrics.rowsFetched()).isEqualTo(12);
+        assertThat(dataSource.getConnectionHoldTime().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("failed executions are counted as errors of the statement")
+    void errorsAreRecorded() {
+        assertThatExceptionOfType(SQLException.class).isThrownBy(() -> execute("SELECT * FROM missing_table"));
+
+        StatementMetrics metrics = findMetrics("SELECT * FROM missing_table");
+        assertThat(metrics.executions()).isEqualTo(1);
+        assertThat(metrics.errors()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("report lists the statements with the largest total execution time first")
+    void slowestStatementsReport() throws SQLException {
+        execute("INSERT INTO items (name) SELECT 'item ' || x FROM SYSTEM_RANGE(1, 10000)");
+        execute("SELECT COUNT(*) FROM items WHERE id = 1");
+
+        List<StatementMetrics> slowest = dataSource.getSlowestStatements(1);
+
+        assertThat(slowest).extracting(StatementMetrics::sql)
+                .containsExactly("INSERT INTO items (name) SELECT 'item ' || x FROM SYSTEM_RANGE(1, 10000)");
+        assertThat(dataSource.formatReport(2))
+                .contains("Connection hold time: count=2")
+                .contains("rowsUpdated=10000")
+                .contains("SELECT COUNT(*) FROM items WHERE id = 1");
+    }
+
+    @Test
+    @DisplayName("target connection features stay reachable through unwrap")
+    void unwrapTarget() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.isWrapperFor(org.h2.jdbc.JdbcConnection.class)).isTrue();
+            assertThat(connection.unwrap(org.h2.jdbc.JdbcConnection.class)).isNotNull();
+        }
+        assertThat(dataSource.unwrap(PooledDataSource.class)).isSameAs(pooledDataSource);
+    }
+
+    private StatementMetrics findMetrics(String sql) {
+        return dataSource.getStatementMetrics().stream()
+                .filter(metrics -> metrics.sql().equals(sql))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.bobocode.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class JdbcTemplateTest {
+    private static final String SQL_INSERT = "INSERT INTO items (name) VALUES (?)";
+    private static final String SQL_SELECT_NAMES = "SELECT name FROM items ORDER BY id";
+    private static final RowMapper<String> NAME_MAPPER = resultSet -> resultSet.getString(1);
+
+    private PooledDataSource pooledDataSource;
+    private TransactionManager transactionManager;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void init() throws SQLException {
+        DataSource dataSource = JdbcUtil.createInMemoryH2DataSource(
+                "jdbc:h2:mem:jdbc_template_test;DB_CLOSE_DELAY=-1", "sa", "");
+        pooledDataSource = JdbcUtil.createPooledDataSource(dataSource, PoolConfig.builder().minIdle(0).build());
+        transactionManager = new TransactionManager(pooledDataSource);
+        jdbcTemplate = new JdbcTemplate(transactionManager);
+        try (Connection connection = pooledDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE items (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255) NOT NULL)");
+        }
+    }
+
+    @AfterEach
+    void dropTable() throws SQLException {
+        try (Connection connection = pooledDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE items");
+        }
+        pooledDataSource.close();
+    }
+
+    @Test
+    @DisplayName("update, insertReturningKey and query work with plain connections")
+    void queryAndUpdate() throws SQLException {
+        long firstId = jdbcTemplate.insertReturningKey(SQL_INSERT, ps -> ps.setString(1, "first"));
+        jdbcTemplate.insertReturningKey(SQL_INSERT, ps -> ps.setString(1, "second"));
+        int updated = jdbcTemplate.update("UPDATE items SET name = ? WHERE id = ?", ps -> {
+            ps.setString(1, "updated");
+            ps.setLong(2, firstId);
+        });
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(jdbcTemplate.query(SQL_SELECT_NAMES, StatementBinder.NO_PARAMETERS, NAME_MAPPER))
+                .containsExactly("updated", "second");
+        assertThat(jdbcTemplate.queryForOptional("SELECT name FROM items WHERE id = ?",
+                ps -> ps.setLong(1, -1), NAME_MAPPER)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("operations within a transaction share one connection")
+    void transactionSharesConnection() throws SQLException {
+        long acquiredBefore = pooledDataSource.getMetrics().acquireTime().count();
+
+        transactionManager.inTransaction(() -> {
+            jdbcTemplate.insertReturningKey(SQL_INSERT, ps -> ps.setString(1, "first"));
+            jdbcTemplate.update(SQL_INSERT, ps -> ps.setString(1, "second"));
+            return jdbcTemplate.query(SQL_SELECT_NAMES, StatementBinder.NO_PARAMETERS, NAME_MAPPER);
+        });
+
+        assertThat(pooledDataSource.getMetrics().acquireTime().count()).isEqualTo(acquiredBefore + 1);
+        assertThat(jdbcTemplate.query(SQL_SELECT_NAMES, StatementBinder.NO_PARAMETERS, NAME_MAPPER))
+                .containsExactly("first", "second");
+    }
+
+    @Test
+    @DisplayName("transaction is rolled back when the callback fails")
+    void transactionIsRolledBack() throws SQLException {
+        assertThatExceptionOfType(SQLException.class).isThrownBy(() -> transactionManager.inTransaction(() -> {
+            jdbcTemplate.update(SQL_INSERT, ps -> ps.setString(1, "first"));
+            return jdbcTemplate.update(SQL_INSERT, ps -> ps.setString(1, null));
+        }));
+
+        assertThat(transactionManager.isTransactionActive()).isFalse();
+        assertThat(countItems()).isZero();
+    }
+
+    @Test
+    @DisplayName("batchUpdateReturning maps the row returned for every item in order")
+    void batchUpdateReturning() throws SQLException {
+        List<String> names = List.of("a", "b", "c", "d", "e");
+
+        List<Long> keys = jdbcTemplate.batchUpdateReturning(SQL_INSERT, names, (ps, name) -> ps.setString(1, name), 2,
+                resultSet -> resultSet.getLong(1));
+
+        assertThat(keys).hasSize(5).isSorted().doesNotHaveDuplicates();
+        assertThat(jdbcTemplate.query("SELECT id FROM items ORDER BY id", StatementBinder.NO_PARAMETERS,
+                resultSet -> resultSet.getLong(1))).isEqualTo(keys);
+    }
+
+    @Test
+    @DisplayName("batchInsertReturningKeys passes generated keys in order")
+    void batchInsertReturningKeys() throws SQLException {
+        List<String> names = List.of("a", "b", "c", "d", "e");
+        List<Long> keys = new ArrayList<>();
+
+        jdbcTemplate.batchInsertReturningKeys(SQL_INSERT, names, (ps, name) -> ps.setString(1, name), 2,
+                (name, key) -> keys.add(key));
+
+        assertThat(keys).hasSize(5).isSorted().doesNotHaveDuplicates();
+        int[] updated = jdbcTemplate.batchUpdate("UPDATE items SET name = UPPER(name) WHERE id = ?", keys,
+                (ps, key) -> ps.setLong(1, key), 3);
+        assertThat(updated).containsOnly(1).hasSize(5);
+        assertThat(jdbcTemplate.query(SQL_SELECT_NAMES, StatementBinder.NO_PARAMETERS, NAME_MAPPER))
+                .containsExactly("A", "B", "C", "D", "E");
+    }
+
+    @Test
+    @DisplayName("queryForStream releases its own connection on close and keeps the transaction connection open")
+    void queryForStreamReleasesConnection() throws SQLException {
+        jdbcTemplate.batchUpdate(SQL_INSERT, List.of("a", "b", "c"), (ps, name) -> ps.setString(1, name), 10);
+
+        try (Stream<String> names = jdbcTemplate.queryForStream(SQL_SELECT_NAMES, StatementBinder.NO_PARAMETERS,
+                NAME_MAPPER, 2, IllegalStateException::new)) {
+            assertThat(pooledDataSource.getMetrics().activeConnections()).isEqualTo(1);
+            assertThat(names.toList()).containsExactly("a", "b", "c");
+        }
+        assertThat(pooledDataSource.getMetrics().activeConnections()).isZero();
+
+        boolean activeAfterStreamClose = transactionManager.inTransaction(() -> {
+            try (Stream<String> names = jdbcTemplate.queryForStream(SQL_SELECT_NAMES, StatementBinder.NO_PARAMETERS,
+                    NAME_MAPPER, 2, IllegalStateException::new)) {
+                names.forEach(name -> {
+                });
+            }
+            return transactionManager.isTransactionActive();
+        });
+        assertThat(activeAfterStreamClose).isTrue();
+        assertThat(pooledDataSource.getMetrics().activeConnections()).isZero();
+    }
+
+    private long countItems() throws SQLException {
+        return jdbcTemplate.queryForOptional("SELECT COUNT(*) FROM items", StatementBinder.NO_PARAMETERS,
+                resultSet -> resultSet.getLong(1)).orElseThrow();
+    }
+}
@@ -0,0 +1,337 @@
+package com.bobocode.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class PooledDataSourceTest {
+    private PooledDataSource pooledDataSource;
+
+    @AfterEach
+    void closePool() {
+        pooledDataSource.close();
+    }
+
+    @Test
+    @DisplayName("getConnection reuses the same physical connection")
+    void getConnectionReusesPhysicalConnection() throws SQLException {
+        pooledDataSource = createPool(PoolConfig.builder().minIdle(0).maxPoolSize(2).build());
+
+        Connection first = pooledDataSource.getConnection();
+        Connection firstPhysical = first.unwrap(org.h2.jdbc.JdbcConnection.class);
+        first.close();
+        Connection second = pooledDataSource.getConnection();
+        Connection secondPhysical = second.unwrap(org.h2.jdbc.JdbcConnection.class);
+        second.close();
+
+        assertThat(secondPhysical).isSameAs(firstPhysical);
+        assertThat(pooledDataSource.getMetrics().createdConnections()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("getConnection opens min idle connections upfront")
+    void minIdleConnectionsAreOpenedOnStart() {
+        pooledDataSource = createPool(PoolConfig.builder().minIdle(3).maxPoolSize(5).build());
+
+        PoolMetrics metrics = pooledDataSource.getMetrics();
+
+        assertThat(metrics.totalConnections()).isEqualTo(3);
+        assertThat(metrics.idleConnections()).isEqualTo(3);
+        assertThat(metrics.activeConnections()).isZero();
+    }
+
+    @Test
+    @DisplayName("getConnection throws an exception when the pool is exhausted")
+    void getConnectionTimesOutWhenPoolIsExhausted() throws SQLException {
+        pooledDataSource = createPool(PoolConfig.builder()
+                .minIdle(0)
+                .maxPoolSize(1)
+                .acquireTimeout(Duration.ofMillis(50))
+                .build());
+
+        try (Connection ignored = pooledDataSource.getConnection()) {
+            assertThatExceptionOfType(SQLTimeoutException.class).isThrownBy(() -> pooledDataSource.getConnection());
+        }
+        PoolMetrics metrics = pooledDataSource.getMetrics();
+        assertThat(metrics.acquireTimeouts()).isEqualTo(1);
+        assertThat(metrics.totalConnections()).isEqualTo(1);
+        assertThat(metrics.acquireTime().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("closed connection cannot be used and is returned to the pool")
+    void closedConnectionCannotBeUsed() throws SQLException {
+        pooledDataSource = createPool(PoolConfig.builder().minIdle(0).build());
+
+        Connection connection = pooledDataSource.getConnection();
+        assertThat(pooledDataSource.getMetrics().activeConnections()).isEqualTo(1);
+        connection.close();
+
+        assertThat(connection.isClosed()).isTrue();
+        assertThatExceptionOfType(SQLException.class).isThrownBy(connection::createStatement);
+        assertThat(pooledDataSource.getMetrics().activeConnections()).isZero();
+        assertThat(pooledDataSource.getMetrics().idleConnections()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("returned connection is rolled back and switched to auto-commit")
+    void returnedConnectionIsReset() throws SQLException {
+        pooledDataSource = createPool(PoolConfig.builder().minIdle(0).maxPoolSize(1).build());
+        try (Connection connection = pooledDataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS pool_test (id INT)");
+            statement.execute("DELETE FROM pool_test");
+        }
+
+        try (Connection connection = pooledDataSource.getConnection(); Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            statement.execute("INSERT INTO pool_test VALUES (1)");
+        }
+
+        try (Connection connection = pooledDataSource.getConnection(); Statement statement = connection.createStatement()) {
+            assertThat(connection.getAutoCommit()).isTrue();
+            var resultSet = statement.executeQuery("SELECT count(*) FROM pool_test");
+            resultSet.next();
+            assertThat(resultSet.getInt(1)).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("returned connection gets its initial read-only mode and transaction isolation back")
+    void returnedConnectionRestoresReadOnlyAndIsolation() throws SQLException {
+        pooledDataSource = createPool(PoolConfig.builder().minIdle(0).maxPoolSize(1).build());
+        boolean initialReadOnly;
+        int initialIsolation;
+        try (Connection connection = pooledDataSource.getConnection()) {
+            initialReadOnly = connection.isReadOnly();
+            initialIsolation = connection.getTransactionIsolation();
+            connection.setReadOnly(!initialReadOnly);
+            connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        }
+
+        try (Connection connection = pooledDataSource.getConnection()) {
+            assertThat(connection.isReadOnly()).isEqualTo(initialReadOnly);
+            assertThat(connection.getTransactionIsolation()).isEqualTo(initialIsolation);
+        }
+        assertThat(pooledDataSource.getMetrics().createdConnections()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("housekeeper evicts idle connections and reports leaks")
+    void housekeeperEvictsIdleConnectionsAndDetectsLeaks() throws Exception {
+        pooledDataSource = createPool(PoolConfig.builder()
+                .minIdle(0)
+                .idleTimeout(Duration.ofMillis(10))
+                .leakDetectionThreshold(Duration.ofMillis(10))
+                .housekeepingPeriod(Duration.ofMillis(20))
+                .build());
+
+        Connection leaked = pooledDataSource.getConnection();
+        pooledDataSource.getConnection().close();
+        Thread.sleep(200);
+
+        PoolMetrics metrics = pooledDataSource.getMetrics();
+        assertThat(metrics.leaksDetected()).isEqualTo(1);
+        assertThat(metrics.idleConnections()).isZero();
+        assertThat(metrics.totalConnections()).isEqualTo(1);
+        leaked.close();
+    }
+
+    @Test
+    @DisplayName("a borrower waiting for a slot gets a new connection when the housekeeper evicts an idle one")
+    void waitingBorrowerGetsSlotOfEvictedConnection() throws Exception {
+        CountDownLatch evictionStarted = new CountDownLatch(1);
+        CountDownLatch finishEviction = new CountDownLatch(1);
+        DataSource targetDataSource = createDataSourceWithBlockingClose(evictionStarted, finishEviction);
+        pooledDataSource = JdbcUtil.createPooledDataSource(targetDataSource, PoolConfig.builder()
+                .minIdle(0)
+                .maxPoolSize(1)
+                .idleTimeout(Duration.ofMillis(10))
+                .housekeepingPeriod(Duration.ofMillis(20))
+                .acquireTimeout(Duration.ofSeconds(5))
+                .build());
+        pooledDataSource.getConnection().close();
+        assertThat(evictionStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> borrowed = executor.submit(() -> {
+                try (Connection connection = pooledDataSource.getConnection()) {
+                    return connection.isValid(1);
+                }
+            });
+            long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (pooledDataSource.getMetrics().waitingThreads() == 0 && System.nanoTime() < deadlineNanos) {
+                Thread.sleep(5);
+            }
+            assertThat(pooledDataSource.getMetrics().waitingThreads()).isEqualTo(1);
+            finishEviction.countDown();
+
+            assertThat(borrowed.get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(pooledDataSource.getMetrics().createdConnections()).isEqualTo(2);
+        } finally {
+            finishEviction.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("prepareStatement reuses a statement closed on the same physical connection")
+    void prepareStatementReusesCachedStatement() throws SQLException {
+        pooledDataSource = createPool(PoolConfig.builder().minIdle(0).maxPoolSize(1).build());
+        String sql = "SELECT ?";
+
+        PreparedStatement firstPhysical;
+        try (Connection connection = pooledDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            firstPhysical = statement.unwrap(PreparedStatement.class);
+            assertThat(statement.getConnection()).isSameAs(connection);
+        }
+        try (Connection connection = pooledDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             PreparedStatement concurrentStatement = connection.prepareStatement(sql)) {
+            assertThat(statement.unwrap(PreparedStatement.class)).isSameAs(firstPhysical);
+            assertThat(concurrentStatement.unwrap(PreparedStatement.class)).isNotSameAs(firstPhysical);
+            statement.setInt(1, 42);
+            ResultSet resultSet = statement.executeQuery();
+            resultSet.next();
+            assertThat(resultSet.getInt(1)).isEqualTo(42);
+        }
+
+        PoolMetrics metrics = pooledDataSource.getMetrics();
+        assertThat(metrics.statementCacheHits()).isEqualTo(1);
+        assertThat(metrics.statementCacheMisses()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("statement cache keeps at most statementCacheSize statements per connection")
+    void statementCacheIsBounded() throws SQLException {
+        pooledDataSource = createPool(PoolConfig.builder().minIdle(0).maxPoolSize(1).statementCacheSize(1).build());
+
+        try (Connection connection = pooledDataSource.getConnection()) {
+            connection.prepareStatement("SELECT 1").close();
+            connection.prepareStatement("SELECT 2").close();
+            connection.prepareStatement("SELECT 1").close();
+            connection.prepareStatement("SELECT 2").close();
+        }
+
+        assertThat(pooledDataSource.getMetrics().statementCacheHits()).isZero();
+        assertThat(pooledDataSource.getMetrics().statementCacheMisses()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("statements return the logical connection, not the physical one")
+    void statementsDoNotExposePhysicalConnection() throws SQLException {
+        pooledDataSource = createPool(PoolConfig.builder().minIdle(0).maxPoolSize(1).build());
+
+        try (Connection connection = pooledDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             PreparedStatement preparedStatement = connection.prepareStatement("SELECT ?")) {
+            ResultSet resultSet = statement.executeQuery("SELECT 1");
+            preparedStatement.setInt(1, 1);
+            ResultSet preparedResultSet = preparedStatement.executeQuery();
+
+            assertThat(statement.getConnection()).isSameAs(connection);
+            assertThat(preparedStatement.getConnection()).isSameAs(connection);
+            assertThat(resultSet.next()).isTrue();
+            assertThat(preparedResultSet.next()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("closed statements and result sets are not kept by a connection that stays open")
+    void closedStatementsAreNotRetained() throws Exception {
+        pooledDataSource = createPool(PoolConfig.builder().minIdle(0).maxPoolSize(1).build());
+
+        try (Connection connection = pooledDataSource.getConnection()) {
+            WeakReference<Statement> statement = new WeakReference<>(executeAndClose(connection.createStatement()));
+            WeakReference<Statement> preparedStatement = new WeakReference<>(
+                    executeAndClose(connection.prepareStatement("SELECT 1")));
+
+            for (int i = 0; i < 10 && (statement.get() != null || preparedStatement.get() != null); i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+
+            assertThat(statement.get()).isNull();
+            assertThat(preparedStatement.get()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("closing a connection closes the statements and result sets left open by the client")
+    void closingConnectionClosesOpenStatements() throws SQLException {
+        pooledDataSource = createPool(PoolConfig.builder().minIdle(0).maxPoolSize(1).build());
+
+        Connection connection = pooledDataSource.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("SELECT 1");
+        connection.close();
+
+        assertThat(statement.isClosed()).isTrue();
+        assertThat(resultSet.isClosed()).isTrue();
+    }
+
+    private static Statement executeAndClose(Statement statement) throws SQLException {
+        ResultSet resultSet = statement instanceof PreparedStatement preparedStatement
+                ? preparedStatement.executeQuery()
+                : statement.executeQuery("SELECT 1");
+        resultSet.close();
+        statement.close();
+        return statement;
+    }
+
+    /**
+     * Closing the first physical connection blocks until finishClose is counted down
+     */
+    private static DataSource createDataSourceWithBlockingClose(CountDownLatch closeStarted, CountDownLatch finishClose)
+            throws SQLException {
+        DataSource h2DataSource = JdbcUtil.createDefaultInMemoryH2DataSource();
+        DataSource targetDataSource = Mockito.spy(h2DataSource);
+        AtomicBoolean first = new AtomicBoolean(true);
+        Mockito.doAnswer(invocation -> {
+            Connection physicalConnection = h2DataSource.getConnection();
+            if (!first.getAndSet(false)) {
+                return physicalConnection;
+            }
+            return (Connection) Proxy.newProxyInstance(PooledDataSourceTest.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("close")) {
+                            closeStarted.countDown();
+                            finishClose.await();
+                        }
+                        try {
+                            return method.invoke(physicalConnection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }).when(targetDataSource).getConnection();
+        return targetDataSource;
+    }
+
+    private PooledDataSource createPool(PoolConfig config) {
+        return JdbcUtil.createPooledDataSource(JdbcUtil.createDefaultInMemoryH2DataSource(), config);
+    }
+}
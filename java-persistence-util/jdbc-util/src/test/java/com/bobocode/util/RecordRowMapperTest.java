@@ -0,0 +1,51 @@
+package com.bobocode.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RecordRowMapperTest {
+
+    @Test
+    @DisplayName("camelCase components are mapped to snake_case columns")
+    void columnsAreSnakeCase() {
+        assertThat(RecordRowMapper.of(Row.class).getColumns()).containsExactly("id", "total_price", "expiration_date");
+        assertThat(RecordRowMapper.toColumnName("ssn2Code")).isEqualTo("ssn2_code");
+    }
+
+    @Test
+    @DisplayName("row values are converted to the component types")
+    void mapRow() throws SQLException {
+        try (Connection connection = JdbcUtil.createDefaultInMemoryH2DataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT DATE '2030-01-02' AS expiration_date, 7 AS id, 12.50 AS total_price")) {
+            resultSet.next();
+
+            Row row = RecordRowMapper.of(Row.class).mapRow(resultSet);
+
+            assertThat(row).isEqualTo(new Row(7L, new BigDecimal("12.50"), LocalDate.of(2030, 1, 2)));
+        }
+    }
+
+    @Test
+    @DisplayName("empty record cannot be mapped")
+    void emptyRecord() {
+        assertThatIllegalArgumentException().isThrownBy(() -> RecordRowMapper.of(Empty.class));
+    }
+
+    private record Row(long id, BigDecimal totalPrice, LocalDate expirationDate) {
+    }
+
+    private record Empty() {
+    }
+}
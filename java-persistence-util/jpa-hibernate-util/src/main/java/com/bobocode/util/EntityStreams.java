@@ -0,0 +1,99 @@
+package com.bobocode.util;
+
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link EntityStreams} turns a JPA query into a {@link Stream} that reads the rows with a forward-only Hibernate
+ * cursor instead of loading the whole result list, so tables larger than the heap can be processed.
+ * <p>
+ * The stream owns an {@link EntityManager} and a read-only transaction, which are closed when the stream is closed,
+ * so it must be used in a try-with-resources block. The persistence context is cleared every clearInterval entities,
+ * before the next row is read, so the entities that were already processed are detached and can be garbage
+ * collected. Lazy associations of an entity have to be initialized while the entity is processed; an operation that
+ * buffers entities (e.g. {@code sorted()}) gets detached ones.
+ */
+public class EntityStreams {
+
+    /**
+     * @param entityManagerFactory factory of the entity manager owned by the stream
+     * @param queryFactory         creates the query within the entity manager of the stream
+     * @param fetchSize            number of rows the driver fetches per round trip
+     * @param clearInterval        number of entities after which the persistence context is cleared
+     * @param <T>                  entity type
+     * @return stream of entities that has to be closed
+     */
+    public static <T> Stream<T> stream(EntityManagerFactory entityManagerFactory,
+                                       Function<EntityManager, TypedQuery<T>> queryFactory,
+                                       int fetchSize, int clearInterval) {
+        if (clearInterval < 1) {
+            throw new IllegalArgumentException("Clear interval must be positive");
+        }
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.unwrap(Session.class).setDefaultReadOnly(true);
+            entityManager.getTransaction().begin();
+            @SuppressWarnings("unchecked")
+            Query<T> query = queryFactory.apply(entityManager).unwrap(Query.class);
+            Stream<T> rows = query.setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .stream();
+            return StreamSupport.stream(new ClearingSpliterator<>(rows.spliterator(), entityManager, clearInterval), false)
+                    .onClose(rows::close)
+                    .onClose(() -> close(entityManager));
+        } catch (RuntimeException e) {
+            close(entityManager);
+            throw e;
+        }
+    }
+
+    /**
+     * Clears the persistence context before the cursor loads the next row, when the previous entities were already
+     * passed down the stream
+     */
+    private static class ClearingSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Spliterator<T> rows;
+        private final EntityManager entityManager;
+        private final int clearInterval;
+        private long streamed;
+
+        private ClearingSpliterator(Spliterator<T> rows, EntityManager entityManager, int clearInterval) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rows = rows;
+            this.entityManager = entityManager;
+            this.clearInterval = clearInterval;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (streamed > 0 && streamed % clearInterval == 0) {
+                entityManager.clear();
+            }
+            boolean advanced = rows.tryAdvance(action);
+            if (advanced) {
+                streamed++;
+            }
+            return advanced;
+        }
+    }
+
+    private static void close(EntityManager entityManager) {
+        try {
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().commit();
+            }
+        } finally {
+            entityManager.close();
+        }
+    }
+}
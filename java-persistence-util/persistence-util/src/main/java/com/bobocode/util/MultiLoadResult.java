@@ -0,0 +1,49 @@
+package com.bobocode.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * {@link MultiLoadResult} is a result of loading rows by a set of ids: the rows that were found, in the order of the
+ * requested ids, and the ids that do not exist.
+ *
+ * @param found      found rows ordered as the requested ids, every id appears at most once
+ * @param missingIds requested ids that were not found, in the order of the request
+ * @param <T>        row type
+ */
+public record MultiLoadResult<T>(List<T> found, List<Long> missingIds) {
+
+    /**
+     * Creates a result from rows loaded in any order
+     *
+     * @param ids         requested ids, duplicates are ignored
+     * @param rows        loaded rows
+     * @param idExtractor function that returns a row id
+     * @param <T>         row type
+     * @return rows ordered as the ids and the ids that were not loaded
+     */
+    public static <T> MultiLoadResult<T> of(Collection<Long> ids, Collection<T> rows, Function<T, Long> idExtractor) {
+        Map<Long, T> rowsById = new HashMap<>();
+        rows.forEach(row -> rowsById.put(idExtractor.apply(row), row));
+        List<T> found = new ArrayList<>(rows.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            T row = rowsById.get(id);
+            if (row != null) {
+                found.add(row);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new MultiLoadResult<>(List.copyOf(found), List.copyOf(missingIds));
+    }
+
+    public boolean hasMissing() {
+        return !missingIds.isEmpty();
+    }
+}
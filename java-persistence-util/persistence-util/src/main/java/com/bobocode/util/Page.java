@@ -0,0 +1,38 @@
+package com.bobocode.util;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@link Page} is a result of keyset (seek) pagination. Instead of a page number it carries a continuation cursor:
+ * the id of the last returned row. Passing it to the next page request continues the scan right after that row,
+ * so every page costs the same regardless of how deep it is.
+ *
+ * @param content    rows of the page ordered by id
+ * @param nextCursor cursor of the next page, or {@code null} if this is the last page
+ * @param <T>        row type
+ */
+public record Page<T>(List<T> content, Long nextCursor) {
+
+    /**
+     * Creates a page from rows that were fetched with limit {@code size + 1}. The extra row is not returned, it only
+     * shows that the next page exists.
+     *
+     * @param rows        up to {@code size + 1} rows ordered by id
+     * @param size        requested page size
+     * @param idExtractor function that returns a row id
+     * @param <T>         row type
+     * @return a page with at most {@code size} rows
+     */
+    public static <T> Page<T> fromLookahead(List<T> rows, int size, Function<T, Long> idExtractor) {
+        if (rows.size() <= size) {
+            return new Page<>(List.copyOf(rows), null);
+        }
+        List<T> content = List.copyOf(rows.subList(0, size));
+        return new Page<>(content, idExtractor.apply(content.get(size - 1)));
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
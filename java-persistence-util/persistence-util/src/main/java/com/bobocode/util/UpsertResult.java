@@ -0,0 +1,15 @@
+package com.bobocode.util;
+
+/**
+ * {@link UpsertResult} reports how many rows of a bulk upsert were inserted as new rows and how many of them
+ * updated the rows that already existed.
+ *
+ * @param inserted number of inserted rows
+ * @param updated  number of updated rows
+ */
+public record UpsertResult(int inserted, int updated) {
+
+    public int total() {
+        return inserted + updated;
+    }
+}